@@ -42,6 +42,8 @@ import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 
 @SuppressWarnings("unused") public class Launcher extends JavaPlugin {
@@ -72,6 +74,13 @@ import java.io.File;
 					new WorkspacePanelVCS(mcreator);
 				}
 				initActions(mcreator);
+
+				// watcher of dirty paths and the repository are released once the workspace window is closed
+				mcreator.addWindowListener(new WindowAdapter() {
+					@Override public void windowClosed(WindowEvent e) {
+						WorkspaceVCS.closeVCSWorkspace(mcreator.getWorkspace());
+					}
+				});
 			});
 		});
 	}
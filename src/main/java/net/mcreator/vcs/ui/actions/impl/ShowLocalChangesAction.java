@@ -23,8 +23,9 @@ import net.mcreator.ui.action.ActionRegistry;
 import net.mcreator.ui.init.L10N;
 import net.mcreator.ui.init.UIRES;
 import net.mcreator.vcs.ui.component.LocalChangesPanel;
+import net.mcreator.vcs.util.GitStaging;
+import net.mcreator.vcs.workspace.DirtyPathTracker;
 import net.mcreator.vcs.workspace.WorkspaceVCS;
-import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 
@@ -34,11 +35,10 @@ public class ShowLocalChangesAction extends VCSAction {
 
 	public ShowLocalChangesAction(ActionRegistry actionRegistry) {
 		super(actionRegistry, L10N.t("action.vcs.show_unsynced_changes"), e -> {
-			Git git = WorkspaceVCS.getVCSWorkspace(actionRegistry.getMCreator().getWorkspace()).getGit();
+			WorkspaceVCS workspaceVCS = WorkspaceVCS.getVCSWorkspace(actionRegistry.getMCreator().getWorkspace());
+			DirtyPathTracker tracker = workspaceVCS.getDirtyPathTracker();
 			try {
-				git.rm().addFilepattern(".").call();
-				git.add().addFilepattern(".").call();
-				Status status = git.status().call();
+				Status status = GitStaging.stageTracked(workspaceVCS.getGit(), tracker, GitStaging.snapshot(tracker));
 				JOptionPane.showMessageDialog(actionRegistry.getMCreator(), status.hasUncommittedChanges() ?
 								new LocalChangesPanel(status) :
 								L10N.label("dialog.vcs.show_unsynced_changes.empty"),
@@ -28,6 +28,7 @@ import net.mcreator.ui.init.L10N;
 import net.mcreator.ui.init.UIRES;
 import net.mcreator.vcs.ui.dialogs.VCSCommitDialog;
 import net.mcreator.vcs.util.*;
+import net.mcreator.vcs.workspace.DirtyPathTracker;
 import net.mcreator.vcs.workspace.WorkspaceVCS;
 import net.mcreator.workspace.TerribleWorkspaceHacks;
 import net.mcreator.workspace.Workspace;
@@ -46,7 +47,9 @@ import org.eclipse.jgit.transport.CredentialsProvider;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 public class SyncLocalWithRemoteAction extends VCSAction {
 
@@ -71,13 +74,17 @@ public class SyncLocalWithRemoteAction extends VCSAction {
 			DialogProgressMonitor monitor = new DialogProgressMonitor(actionRegistry.getMCreator(),
 					L10N.t("action.vcs.sync_with_remote_workspace.title"));
 
-			ICustomSyncHandler mergeHandler = new MCreatorWorkspaceSyncHandler(actionRegistry.getMCreator());
+			MCreatorWorkspaceSyncHandler mergeHandler = new MCreatorWorkspaceSyncHandler(actionRegistry.getMCreator());
 
+			// only paths changed since the last commit are staged and scanned, if the tracker knows them
+			DirtyPathTracker tracker = workspaceVCS.getDirtyPathTracker();
+			// files MCreator has just written could still be unreported by the watch service, so they are reported here
+			if (tracker != null)
+				tracker.markDirty(getSavedAndGeneratedPaths(actionRegistry.getMCreator().getWorkspace()));
+			DirtyPathTracker.Snapshot dirtyPaths = GitStaging.snapshot(tracker);
 			Status status;
 			try {
-				git.rm().addFilepattern(".").call();
-				git.add().addFilepattern(".").call();
-				status = git.status().call();
+				status = GitStaging.stageTracked(git, tracker, dirtyPaths);
 			} catch (GitAPIException ex) {
 				LOG.error("Failed to update untracked files and get repo status", ex);
 				actionRegistry.getMCreator().setCursor(Cursor.getDefaultCursor());
@@ -89,23 +96,32 @@ public class SyncLocalWithRemoteAction extends VCSAction {
 				String commitMessage = VCSCommitDialog.getVCSCommitDialog(actionRegistry.getMCreator(), status);
 				if (commitMessage != null) {
 					try {
-						// first commit our changes
-						CommitCommand commitCommand = git.commit().setAll(true).setMessage(commitMessage);
+						// first commit our changes, these were staged above
+						CommitCommand commitCommand = git.commit().setMessage(commitMessage);
 						try {
 							commitCommand = commitCommand.setCommitter(workspaceVCS.getInfo().getUsername(),
 									new PersonIdent(git.getRepository()).getEmailAddress());
 						} catch (Exception ignored) {
 						}
 						commitCommand.call();
+						if (tracker != null)
+							tracker.markClean(dirtyPaths);
 
 						// next we check if there are any commits on the remote
 						DialogProgressMonitor.runTask(monitor, "SyncLocalWithRemote-Fetch",
 								() -> git.fetch().setRemote("origin").setCredentialsProvider(credentialsProvider)
 										.setProgressMonitor(monitor).call());
-						if (git.getRepository().findRef(Constants.FETCH_HEAD) != null) {
-							ObjectId head = git.getRepository().resolve(Constants.HEAD);
-							ObjectId fetchHead = git.getRepository().findRef(Constants.FETCH_HEAD).getObjectId();
+						ObjectId head = git.getRepository().resolve(Constants.HEAD);
+						ObjectId fetchHead = git.getRepository().findRef(Constants.FETCH_HEAD) != null ?
+								git.getRepository().findRef(Constants.FETCH_HEAD).getObjectId() :
+								null;
 
+						// if remote has no commits that are not in local, there is nothing to merge and we only push
+						// local was just committed, so it is never behind remote and a merge is the only option
+						SyncTwoRefsWithMerge.SyncType syncType = fetchHead != null ?
+								SyncTwoRefsWithMerge.getSyncType(git, head, fetchHead) :
+								SyncTwoRefsWithMerge.SyncType.LOCAL_AHEAD;
+						if (syncType == SyncTwoRefsWithMerge.SyncType.DIVERGED) {
 							String mergeMessage = new MergeMessageFormatter().format(Collections.singletonList(
 											new ObjectIdRef.Unpeeled(Ref.Storage.LOOSE, fetchHead.getName(), fetchHead.copy())),
 									new ObjectIdRef.Unpeeled(Ref.Storage.LOOSE, head.getName(), head.copy()));
@@ -116,23 +132,30 @@ public class SyncLocalWithRemoteAction extends VCSAction {
 
 							// if custom merge handler was required
 							needsWorkspaceBuildAfter = DialogProgressMonitor.runTask(monitor,
-									"SyncLocalWithRemote-ResolveConflict",
-									() -> SyncTwoRefsWithMerge.sync(git, head, fetchHead, mergeHandler, () -> {
-										// fix in case if merge was not committed yet
-										if (git.getRepository().getRepositoryState()
-												== RepositoryState.MERGING_RESOLVED) {
-											git.rm().addFilepattern(".").call();
-											git.add().addFilepattern(".").call();
-											git.commit().setAll(true).setMessage(mergeMessage).call();
-										}
+									"SyncLocalWithRemote-ResolveConflict", () -> {
+										SyncSession session = new SyncSession(git);
+										try (SyncTwoRefsWithMerge.SyncResult syncResult = SyncTwoRefsWithMerge.sync(
+												session, head, fetchHead, mergeHandler, () -> {
+													// fix in case if merge was not committed yet
+													if (git.getRepository().getRepositoryState()
+															== RepositoryState.MERGING_RESOLVED) {
+														GitStaging.stage(git, GitStaging.snapshot(tracker).paths());
+														git.commit().setMessage(mergeMessage).call();
+													}
 
-										// we pull changes before custom merge handler tasks
-										git.pull().setRemote("origin").setCredentialsProvider(credentialsProvider)
-												.setProgressMonitor(monitor).call();
-									}, false).requiredCustomMergeHandler());
+													// we pull changes before custom merge handler tasks
+													git.pull().setRemote("origin")
+															.setCredentialsProvider(credentialsProvider)
+															.setProgressMonitor(monitor).call();
+												}, false)) {
+											return syncResult.requiredCustomMergeHandler();
+										}
+									});
 
 							// possible refactor after sync start
-							TerribleWorkspaceHacks.reloadFromFS(actionRegistry.getMCreator().getWorkspace());
+							// workspace merged by the sync handler is already up to date, otherwise git changed it
+							if (!mergeHandler.isWorkspaceAppliedInPlace())
+								TerribleWorkspaceHacks.reloadFromFS(actionRegistry.getMCreator().getWorkspace());
 							if (!localWorkspace.getWorkspaceSettings().getCurrentGenerator()
 									.equals(preMergeSettings.getCurrentGenerator())) {
 								LOG.debug("Switching local workspace generator to "
@@ -144,20 +167,28 @@ public class SyncLocalWithRemoteAction extends VCSAction {
 								localWorkspace.switchGenerator(
 										localWorkspace.getWorkspaceSettings().getCurrentGenerator());
 								WorkspaceGeneratorSetupDialog.runSetup(actionRegistry.getMCreator(), false);
+								// generator switch rewrites files all over the workspace, so these are scanned
+								if (tracker != null)
+									tracker.markUnknown();
 							}
 							WorkspaceSettingsChange workspaceSettingsChange = new WorkspaceSettingsChange(
 									preMergeSettings, localWorkspace.getWorkspaceSettings());
-							if (workspaceSettingsChange.refactorNeeded())
+							if (workspaceSettingsChange.refactorNeeded()) {
 								WorkspaceSettingsAction.refactorWorkspace(actionRegistry.getMCreator(),
 										workspaceSettingsChange);
+								if (tracker != null) // same as above, refactor regenerates the whole workspace
+									tracker.markUnknown();
+							}
 							// possible refactor after sync end
 
-							// we might need to make another commit to commit the merge changes
+							// we might need to make another commit to commit the merge changes, only paths written
+							// since the commit above are staged, including paths written by sync handler and refactor
 							try {
-								git.rm().addFilepattern(".").call();
-								git.add().addFilepattern(".").call();
-								git.commit().setAll(true).setAllowEmpty(false)
-										.setMessage("MCreator " + mergeMessage).call();
+								DirtyPathTracker.Snapshot mergedPaths = GitStaging.snapshot(tracker);
+								GitStaging.stage(git, mergedPaths.paths());
+								git.commit().setAllowEmpty(false).setMessage("MCreator " + mergeMessage).call();
+								if (tracker != null)
+									tracker.markClean(mergedPaths);
 							} catch (Exception ignored) {
 							}
 
@@ -201,10 +232,25 @@ public class SyncLocalWithRemoteAction extends VCSAction {
 			actionRegistry.getMCreator().reloadWorkspaceTabContents();
 			actionRegistry.getMCreator().setCursor(Cursor.getDefaultCursor());
 
+			// pictures of merged mod elements are rendered only now, as sync and refactor use the same managers
+			mergeHandler.submitPreviews();
+
 			if (needsWorkspaceBuildAfter)
 				actionRegistry.buildWorkspace.doAction();
 		});
 		setIcon(UIRES.get("16px.vcs_push"));
 	}
 
+	/**
+	 * @return VCS paths MCreator writes when it saves the workspace and generates mod base
+	 */
+	private static List<String> getSavedAndGeneratedPaths(Workspace workspace) {
+		SyncPathClassifier classifier = new SyncPathClassifier(workspace);
+		List<String> paths = new ArrayList<>(classifier.getModBaseTemplates());
+		if (classifier.getLangFilesRoot() != null)
+			paths.add(classifier.getLangFilesRoot());
+		paths.add(workspace.getFileManager().getWorkspaceFile().getName());
+		return paths;
+	}
+
 }
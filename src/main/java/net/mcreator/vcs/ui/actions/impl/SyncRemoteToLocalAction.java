@@ -35,13 +35,18 @@ import net.mcreator.workspace.settings.WorkspaceSettingsChange;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.CheckoutConflictException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectIdRef;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.merge.MergeMessageFormatter;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.transport.CredentialsProvider;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Collections;
 
 public class SyncRemoteToLocalAction extends VCSAction {
 
@@ -53,8 +58,6 @@ public class SyncRemoteToLocalAction extends VCSAction {
 
 			// save workspace to FS first here, so the changes get detected by git
 			actionRegistry.getMCreator().getFileManager().saveWorkspaceDirectlyAndWait();
-			// generate base at this point too
-			actionRegistry.getMCreator().getGenerator().generateBase();
 
 			WorkspaceVCS workspaceVCS = WorkspaceVCS.getVCSWorkspace(actionRegistry.getMCreator().getWorkspace());
 			Git git = workspaceVCS.getGit();
@@ -82,70 +85,90 @@ public class SyncRemoteToLocalAction extends VCSAction {
 					return;
 				}
 
+				ObjectId head = git.getRepository().resolve(Constants.HEAD);
+				ObjectId fetchHead = git.getRepository().findRef(Constants.FETCH_HEAD).getObjectId();
+
+				// most syncs do not need a merge at all, these are handled without stashing or merging workspaces
+				SyncTwoRefsWithMerge.SyncType syncType = SyncTwoRefsWithMerge.getSyncType(git, head, fetchHead);
+				if (syncType == SyncTwoRefsWithMerge.SyncType.UP_TO_DATE
+						|| syncType == SyncTwoRefsWithMerge.SyncType.LOCAL_AHEAD) {
+					actionRegistry.getMCreator().getStatusBar().setPersistentMessage(
+							L10N.t("statusbar.vcs.pull.no_commits"));
+					actionRegistry.getMCreator().setCursor(Cursor.getDefaultCursor());
+					return;
+				} else if (syncType == SyncTwoRefsWithMerge.SyncType.FAST_FORWARD) {
+					WorkspaceSettings preMergeSettings = GSONClone.deepClone(
+							actionRegistry.getMCreator().getWorkspace().getWorkspaceSettings(),
+							WorkspaceSettings.class);
+					try {
+						// only paths changed on remote are checked out, local changes of other paths are kept
+						DialogProgressMonitor.runTask(monitor, "SyncRemoteToLocal", () -> {
+							SyncTwoRefsWithMerge.fastForward(git, head, fetchHead);
+							return null;
+						});
+
+						afterRemoteChangesApplied(actionRegistry, preMergeSettings);
+						actionRegistry.getMCreator().setCursor(Cursor.getDefaultCursor());
+						return;
+					} catch (CheckoutConflictException ex) {
+						// local changes touch paths changed on remote, continue with the merge below
+						LOG.debug("Fast-forward not possible due to local changes: " + ex.getConflictingPaths());
+					}
+				}
+
+				// generate base at this point, so base changes are part of the stash
+				actionRegistry.getMCreator().getGenerator().generateBase();
+
 				// stash local changes
-				git.rm().addFilepattern(".").call();
-				git.add().addFilepattern(".").call();
+				GitStaging.stageAll(git);
 				stash = git.stashCreate().setIncludeUntracked(true).call();
 
 				ObjectId presyncPointer = stash;
 				if (presyncPointer == null) // if there are no changes, stash is null
-					presyncPointer = git.getRepository().resolve(Constants.HEAD);
+					presyncPointer = head;
 
-				ObjectId fetchHead = git.getRepository().findRef(Constants.FETCH_HEAD).getObjectId();
+				String mergeMessage = new MergeMessageFormatter().format(Collections.singletonList(
+								new ObjectIdRef.Unpeeled(Ref.Storage.LOOSE, fetchHead.getName(), fetchHead.copy())),
+						new ObjectIdRef.Unpeeled(Ref.Storage.LOOSE, head.getName(), head.copy()));
 
 				// next we do a dry run of the merge to see if we can silently merge workspaces
-				SyncTwoRefsWithMerge.SyncResult syncResult = SyncTwoRefsWithMerge.sync(git, presyncPointer, fetchHead,
-						mergeHandler, null, true);
-
-				// we can pull from remote only if custom merge handler was not required and no user interaction was required
-				if (!syncResult.requiredCustomMergeHandler() && !syncResult.requiredUserAction()) {
-					Workspace localWorkspace = actionRegistry.getMCreator().getWorkspace();
-					WorkspaceSettings preMergeSettings = GSONClone.deepClone(localWorkspace.getWorkspaceSettings(),
-							WorkspaceSettings.class);
-
-					// pull changes from remote before unstashing
-					DialogProgressMonitor.runTask(monitor, "SyncRemoteToLocal",
-							() -> git.pull().setRemote("origin").setCredentialsProvider(credentialsProvider)
-									.setProgressMonitor(monitor).call());
-
-					// unstash local changes
-					if (stash != null)
-						git.stashApply().setStashRef(stash.getName()).call();
-
-					// possible refactor after sync start
-					TerribleWorkspaceHacks.reloadFromFS(actionRegistry.getMCreator().getWorkspace());
-
-					localWorkspace = actionRegistry.getMCreator().getWorkspace();
-					if (!localWorkspace.getWorkspaceSettings().getCurrentGenerator()
-							.equals(preMergeSettings.getCurrentGenerator())) {
-						LOG.debug("Switching local workspace generator to " + localWorkspace.getWorkspaceSettings()
-								.getCurrentGenerator());
-						WorkspaceGeneratorSetup.cleanupGeneratorForSwitchTo(localWorkspace,
-								Generator.GENERATOR_CACHE.get(
-										localWorkspace.getWorkspaceSettings().getCurrentGenerator()));
-						localWorkspace.switchGenerator(localWorkspace.getWorkspaceSettings().getCurrentGenerator());
-						WorkspaceGeneratorSetupDialog.runSetup(actionRegistry.getMCreator(), false);
+				try (SyncTwoRefsWithMerge.SyncResult syncResult = SyncTwoRefsWithMerge.sync(
+						new SyncSession(git), presyncPointer, fetchHead, mergeHandler, null, true)) {
+					// we can pull from remote only if custom merge handler was not required and no user interaction was required
+					if (!syncResult.requiredCustomMergeHandler() && !syncResult.requiredUserAction()) {
+						WorkspaceSettings preMergeSettings = GSONClone.deepClone(
+								actionRegistry.getMCreator().getWorkspace().getWorkspaceSettings(),
+								WorkspaceSettings.class);
+
+						// apply remote changes before unstashing, fetched commits are already local at this point
+						boolean hasLocalChanges = stash != null;
+						DialogProgressMonitor.runTask(monitor, "SyncRemoteToLocal", () -> {
+							if (!hasLocalChanges) {
+								// the dry run merged HEAD with remote, so its merged tree is exactly the pull result
+								return SyncTwoRefsWithMerge.applyMergeResult(syncResult, mergeMessage);
+							} else {
+								// the dry run included local changes, so merge the fetched commits without them
+								return git.merge().include(fetchHead).setMessage(mergeMessage)
+										.setProgressMonitor(monitor).call().getNewHead();
+							}
+						});
+
+						// unstash local changes
+						if (stash != null)
+							git.stashApply().setStashRef(stash.getName()).call();
+
+						afterRemoteChangesApplied(actionRegistry, preMergeSettings);
+					} else {
+						// unstash the stash as we will not be using it
+						if (stash != null)
+							git.stashApply().setStashRef(stash.getName()).call();
+
+						JOptionPane.showMessageDialog(actionRegistry.getMCreator(),
+								L10N.t("dialog.vcs.error.local_changes_not_synced.message"),
+								L10N.t("dialog.vcs.error.local_changes_not_synced.title"), JOptionPane.WARNING_MESSAGE);
+						actionRegistry.getMCreator().getStatusBar().setPersistentMessage(
+								L10N.t("statusbar.vcs.pull.local_changes_not_synced"));
 					}
-					WorkspaceSettingsChange workspaceSettingsChange = new WorkspaceSettingsChange(preMergeSettings,
-							localWorkspace.getWorkspaceSettings());
-					if (workspaceSettingsChange.refactorNeeded())
-						WorkspaceSettingsAction.refactorWorkspace(actionRegistry.getMCreator(),
-								workspaceSettingsChange);
-					// possible refactor after sync end
-
-					actionRegistry.getMCreator().getStatusBar().setPersistentMessage(
-							L10N.t("statusbar.vcs.pull.changes_synced"));
-					actionRegistry.getMCreator().reloadWorkspaceTabContents();
-				} else {
-					// unstash the stash as we will not be using it
-					if (stash != null)
-						git.stashApply().setStashRef(stash.getName()).call();
-
-					JOptionPane.showMessageDialog(actionRegistry.getMCreator(),
-							L10N.t("dialog.vcs.error.local_changes_not_synced.message"),
-							L10N.t("dialog.vcs.error.local_changes_not_synced.title"), JOptionPane.WARNING_MESSAGE);
-					actionRegistry.getMCreator().getStatusBar().setPersistentMessage(
-							L10N.t("statusbar.vcs.pull.local_changes_not_synced"));
 				}
 			} catch (Exception ex) {
 				// unstash the stash as we will not be using it
@@ -167,4 +190,28 @@ public class SyncRemoteToLocalAction extends VCSAction {
 		setIcon(UIRES.get("16px.vcs_pull"));
 	}
 
+	private static void afterRemoteChangesApplied(ActionRegistry actionRegistry, WorkspaceSettings preMergeSettings) {
+		// possible refactor after sync start
+		TerribleWorkspaceHacks.reloadFromFS(actionRegistry.getMCreator().getWorkspace());
+
+		Workspace localWorkspace = actionRegistry.getMCreator().getWorkspace();
+		if (!localWorkspace.getWorkspaceSettings().getCurrentGenerator()
+				.equals(preMergeSettings.getCurrentGenerator())) {
+			LOG.debug("Switching local workspace generator to " + localWorkspace.getWorkspaceSettings()
+					.getCurrentGenerator());
+			WorkspaceGeneratorSetup.cleanupGeneratorForSwitchTo(localWorkspace,
+					Generator.GENERATOR_CACHE.get(localWorkspace.getWorkspaceSettings().getCurrentGenerator()));
+			localWorkspace.switchGenerator(localWorkspace.getWorkspaceSettings().getCurrentGenerator());
+			WorkspaceGeneratorSetupDialog.runSetup(actionRegistry.getMCreator(), false);
+		}
+		WorkspaceSettingsChange workspaceSettingsChange = new WorkspaceSettingsChange(preMergeSettings,
+				localWorkspace.getWorkspaceSettings());
+		if (workspaceSettingsChange.refactorNeeded())
+			WorkspaceSettingsAction.refactorWorkspace(actionRegistry.getMCreator(), workspaceSettingsChange);
+		// possible refactor after sync end
+
+		actionRegistry.getMCreator().getStatusBar().setPersistentMessage(L10N.t("statusbar.vcs.pull.changes_synced"));
+		actionRegistry.getMCreator().reloadWorkspaceTabContents();
+	}
+
 }
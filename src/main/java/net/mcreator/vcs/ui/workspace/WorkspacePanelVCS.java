@@ -35,6 +35,7 @@ import net.mcreator.vcs.ui.actions.impl.SetupVCSAction;
 import net.mcreator.vcs.ui.component.BranchesPopup;
 import net.mcreator.vcs.ui.component.ViewWrapper;
 import net.mcreator.vcs.util.DialogProgressMonitor;
+import net.mcreator.vcs.util.GitStaging;
 import net.mcreator.vcs.workspace.WorkspaceVCS;
 import net.mcreator.workspace.TerribleWorkspaceHacks;
 import org.apache.logging.log4j.LogManager;
@@ -275,8 +276,7 @@ public class WorkspacePanelVCS extends AbstractWorkspacePanel {
 							// track all so they can be stashed properly
 							pd.addProgressUnit(pu = new ProgressDialog.ProgressUnit(
 									L10N.t("workspace.vcs.jump_to_selected_commit.stashing")));
-							git.rm().addFilepattern(".").call();
-							git.add().addFilepattern(".").call();
+							GitStaging.stageAll(git);
 
 							// remove local changes attempt 1
 							git.stashCreate().call();
@@ -308,8 +308,7 @@ public class WorkspacePanelVCS extends AbstractWorkspacePanel {
 							try {
 								pd.addProgressUnit(pu = new ProgressDialog.ProgressUnit(
 										L10N.t("workspace.vcs.jump_to_selected_commit.cleaning")));
-								git.rm().addFilepattern(".").call();
-								git.add().addFilepattern(".").call();
+								GitStaging.stageAll(git);
 								git.commit().setAll(true).setAllowEmpty(false).setMessage("Jump cleanup commit").call();
 								pu.markStateOk();
 							} catch (Exception ignored) {
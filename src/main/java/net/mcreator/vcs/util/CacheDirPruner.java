@@ -0,0 +1,66 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps cache directories of the workspace cache dir bounded. Modification time of a cached file marks when it was
+ * used last, so files are touched when they are reused and the least recently used files are removed first.
+ */
+public class CacheDirPruner {
+
+	/**
+	 * Marks the cached file as used now.
+	 */
+	public static void touch(File cacheFile) {
+		cacheFile.setLastModified(System.currentTimeMillis());
+	}
+
+	/**
+	 * Removes files unused for longer than the given time, and the least recently used files over the given count.
+	 * Temporary files of entries being stored by other threads are skipped.
+	 *
+	 * @param cacheDir Cache directory to prune
+	 * @param maxFiles Maximum number of files kept
+	 * @param maxAge   Time in milliseconds after which unused files are removed
+	 */
+	public static void prune(File cacheDir, int maxFiles, long maxAge) {
+		File[] cacheFiles = cacheDir.listFiles(file -> file.isFile() && !file.getName().endsWith(".tmp"));
+		if (cacheFiles == null)
+			return;
+
+		// modification times are read once, as they can change while the files are sorted
+		Map<File, Long> lastUsed = new HashMap<>();
+		for (File cacheFile : cacheFiles)
+			lastUsed.put(cacheFile, cacheFile.lastModified());
+
+		long expired = System.currentTimeMillis() - maxAge;
+		Arrays.sort(cacheFiles, Comparator.comparing(lastUsed::get, Comparator.reverseOrder()));
+		for (int i = 0; i < cacheFiles.length; i++) {
+			if (i >= maxFiles || lastUsed.get(cacheFiles[i]) < expired)
+				cacheFiles[i].delete();
+		}
+	}
+
+}
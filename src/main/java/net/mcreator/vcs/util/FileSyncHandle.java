@@ -23,35 +23,46 @@ import net.mcreator.vcs.util.diff.MergeHandle;
 import net.mcreator.vcs.util.diff.ResultSide;
 import net.mcreator.workspace.Workspace;
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.ObjectId;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
 
+/**
+ * Sync info of a single repository path. Only object IDs of each side are kept, file contents are loaded
+ * through the session of the sync only when they are requested.
+ */
 public class FileSyncHandle {
 
-	private byte[] remoteBytes, localBytes, baseBytes;
+	private final SyncSession session;
+	private final SyncPathTable pathTable;
+	private final int pathId;
+
+	@Nullable private ObjectId remoteId, localId, baseId;
 	private String remotePath;
 	private String localPath;
 	private final String basePath;
-	private boolean unmerged;
-
-	FileSyncHandle(String basePath) {
-		this.basePath = basePath;
-	}
 
-	void setRemoteBytes(byte[] remoteBytes) {
-		this.remoteBytes = remoteBytes;
+	FileSyncHandle(SyncSession session, SyncPathTable pathTable, int pathId) {
+		this.session = session;
+		this.pathTable = pathTable;
+		this.pathId = pathId;
+		this.basePath = pathTable.getPath(pathId);
 	}
 
-	void setLocalBytes(byte[] localBytes) {
-		this.localBytes = localBytes;
+	void setRemoteId(@Nullable ObjectId remoteId) {
+		this.remoteId = remoteId;
 	}
 
-	void setBaseBytes(byte[] baseBytes) {
-		this.baseBytes = baseBytes;
+	void setLocalId(@Nullable ObjectId localId) {
+		this.localId = localId;
 	}
 
-	void setUnmerged(boolean unmerged) {
-		this.unmerged = unmerged;
+	void setBaseId(@Nullable ObjectId baseId) {
+		this.baseId = baseId;
 	}
 
 	void setRemotePath(String remotePath) {
@@ -62,16 +73,36 @@ public class FileSyncHandle {
 		this.localPath = localPath;
 	}
 
-	public byte[] getRemoteBytes() {
-		return remoteBytes;
+	@Nullable public ObjectId getRemoteId() {
+		return remoteId;
+	}
+
+	@Nullable public ObjectId getLocalId() {
+		return localId;
+	}
+
+	@Nullable public ObjectId getBaseId() {
+		return baseId;
+	}
+
+	@Nullable public ObjectId getId(ResultSide resultSide) {
+		return switch (resultSide) {
+			case LOCAL -> getLocalId();
+			case REMOTE -> getRemoteId();
+			default -> getBaseId();
+		};
+	}
+
+	public byte[] getRemoteBytes() throws IOException {
+		return getBytes(ResultSide.REMOTE);
 	}
 
-	public byte[] getLocalBytes() {
-		return localBytes;
+	public byte[] getLocalBytes() throws IOException {
+		return getBytes(ResultSide.LOCAL);
 	}
 
-	public byte[] getBaseBytes() {
-		return baseBytes;
+	public byte[] getBaseBytes() throws IOException {
+		return getBytes(ResultSide.BASE);
 	}
 
 	public String getBasePath() {
@@ -94,12 +125,34 @@ public class FileSyncHandle {
 		};
 	}
 
-	public byte[] getBytes(ResultSide resultSide) {
-		return switch (resultSide) {
-			case LOCAL -> getLocalBytes();
-			case REMOTE -> getRemoteBytes();
-			default -> getBaseBytes();
-		};
+	/**
+	 * Loads the contents of the given side of this path. Contents are served from the blob store of the sync,
+	 * so the same blob is loaded from the repository only once.
+	 *
+	 * @param resultSide Side to load the contents of
+	 * @return File contents or null if the file does not exist on the given side
+	 * @throws IOException if the object could not be read from the repository
+	 */
+	@Nullable public byte[] getBytes(ResultSide resultSide) throws IOException {
+		ObjectId id = getId(resultSide);
+		if (id == null)
+			return null;
+		return session.getBlobStore().getBytes(session.getReader(), id);
+	}
+
+	/**
+	 * Opens the contents of the given side of this path as a stream, so large files do not need to be loaded to the
+	 * heap at once
+	 *
+	 * @param resultSide Side to open the contents of
+	 * @return Stream of file contents or null if the file does not exist on the given side
+	 * @throws IOException if the object could not be read from the repository
+	 */
+	@Nullable public InputStream openStream(ResultSide resultSide) throws IOException {
+		ObjectId id = getId(resultSide);
+		if (id == null)
+			return null;
+		return session.getBlobStore().openStream(session.getReader(), id);
 	}
 
 	public DiffEntry.ChangeType getChangeTypeRelativeTo(ResultSide resultSide) {
@@ -111,37 +164,30 @@ public class FileSyncHandle {
 	}
 
 	public DiffEntry.ChangeType getChangeTypeRelativeToLocal() {
-		if (baseBytes == null)
-			if (localBytes != null)
-				return DiffEntry.ChangeType.ADD;
-
-		if (baseBytes != null)
-			if (localBytes == null)
-				return DiffEntry.ChangeType.DELETE;
-
-		if (baseBytes != null)
-			return DiffEntry.ChangeType.MODIFY;
-
-		return null;
+		return getChangeType(localId);
 	}
 
 	public DiffEntry.ChangeType getChangeTypeRelativeToRemote() {
-		if (baseBytes == null)
-			if (localBytes != null)
-				return DiffEntry.ChangeType.ADD;
-
-		if (baseBytes != null)
-			if (localBytes == null)
-				return DiffEntry.ChangeType.DELETE;
+		return getChangeType(remoteId);
+	}
 
-		if (baseBytes != null)
-			return DiffEntry.ChangeType.MODIFY;
+	/**
+	 * @return Change of the given side relative to base, or null if the side did not change this path
+	 */
+	@Nullable private DiffEntry.ChangeType getChangeType(@Nullable ObjectId sideId) {
+		if (Objects.equals(baseId, sideId))
+			return null;
+		if (baseId == null)
+			return DiffEntry.ChangeType.ADD;
+		return sideId == null ? DiffEntry.ChangeType.DELETE : DiffEntry.ChangeType.MODIFY;
+	}
 
-		return null;
+	public int getPathId() {
+		return pathId;
 	}
 
 	public boolean isUnmerged() {
-		return unmerged;
+		return pathTable.isUnmerged(pathId);
 	}
 
 	public MergeHandle<FileSyncHandle> toPathMergeHandle() {
@@ -161,7 +207,7 @@ public class FileSyncHandle {
 	}
 
 	@Override public String toString() {
-		return basePath + (unmerged ? " (unmerged)" : "") + " - " + (remoteBytes != null ? "R" : "") + (
-				localBytes != null ? "L" : "") + (baseBytes != null ? "B" : "");
+		return basePath + (isUnmerged() ? " (unmerged)" : "") + " - " + (remoteId != null ? "R" : "") + (
+				localId != null ? "L" : "") + (baseId != null ? "B" : "");
 	}
 }
@@ -18,13 +18,13 @@
 
 package net.mcreator.vcs.util;
 
-import net.mcreator.util.diff.DiffResult;
-import net.mcreator.vcs.util.diff.DiffResultToBaseConflictFinder;
-import net.mcreator.util.diff.ListDiff;
-import net.mcreator.vcs.util.diff.MergeHandle;
+import net.mcreator.vcs.util.diff.MergeHandleIndex;
+import net.mcreator.vcs.util.diff.ThreeWayDiff;
 import net.mcreator.workspace.elements.FolderElement;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class FolderSyncHandler {
@@ -32,13 +32,10 @@ public class FolderSyncHandler {
 	@SuppressWarnings("BooleanMethodIsAlwaysInverted")
 	public static boolean mergeFoldersRecursively(FolderElement local, FolderElement remote, FolderElement base,
 			boolean dryRun) {
-		DiffResult<FolderElement> folderElementListDiffLocalToBase = ListDiff.getListDiff(
-				base.getDirectFolderChildren(), local.getDirectFolderChildren());
-		DiffResult<FolderElement> folderElementListDiffRemoteToBase = ListDiff.getListDiff(
-				base.getDirectFolderChildren(), remote.getDirectFolderChildren());
+		ThreeWayDiff<FolderElement> folderElementDiff = ThreeWayDiff.of(base.getDirectFolderChildren(),
+				local.getDirectFolderChildren(), remote.getDirectFolderChildren());
 
-		Set<MergeHandle<FolderElement>> conflictingFolderElements = DiffResultToBaseConflictFinder.findConflicts(
-				folderElementListDiffLocalToBase, folderElementListDiffRemoteToBase);
+		MergeHandleIndex<FolderElement> conflictingFolderElements = folderElementDiff.conflicts();
 
 		if (!conflictingFolderElements.isEmpty())
 			return false;
@@ -47,32 +44,33 @@ public class FolderSyncHandler {
 		Set<FolderElement> mergedChildren = new HashSet<>(base.getDirectFolderChildren());
 
 		// process "mergable changes" for the current tree depth
-		for (FolderElement removedFolderElement : folderElementListDiffLocalToBase.removed())
-			if (MergeHandle.isElementNotInMergeHandleCollection(conflictingFolderElements, removedFolderElement))
+		for (FolderElement removedFolderElement : folderElementDiff.localToBase().removed())
+			if (!conflictingFolderElements.containsElement(removedFolderElement))
 				mergedChildren.remove(removedFolderElement);
 
-		for (FolderElement removedFolderElement : folderElementListDiffRemoteToBase.removed())
-			if (MergeHandle.isElementNotInMergeHandleCollection(conflictingFolderElements, removedFolderElement))
+		for (FolderElement removedFolderElement : folderElementDiff.remoteToBase().removed())
+			if (!conflictingFolderElements.containsElement(removedFolderElement))
 				mergedChildren.remove(removedFolderElement);
 
-		for (FolderElement addedFolderElement : folderElementListDiffLocalToBase.added())
-			if (MergeHandle.isElementNotInMergeHandleCollection(conflictingFolderElements, addedFolderElement))
+		for (FolderElement addedFolderElement : folderElementDiff.localToBase().added())
+			if (!conflictingFolderElements.containsElement(addedFolderElement))
 				mergedChildren.add(addedFolderElement);
 
-		for (FolderElement addedFolderElement : folderElementListDiffRemoteToBase.added())
-			if (MergeHandle.isElementNotInMergeHandleCollection(conflictingFolderElements, addedFolderElement))
+		for (FolderElement addedFolderElement : folderElementDiff.remoteToBase().added())
+			if (!conflictingFolderElements.containsElement(addedFolderElement))
 				mergedChildren.add(addedFolderElement);
 
 		// if not in dry run, update the base workspace with new children
 		if (!dryRun)
 			base.setChildren(mergedChildren);
 
+		Map<FolderElement, FolderElement> localChildren = indexChildren(local);
+		Map<FolderElement, FolderElement> remoteChildren = indexChildren(remote);
 		for (FolderElement baseChild : mergedChildren) {
-			int localIdx = local.getDirectFolderChildren().indexOf(baseChild);
-			int remoteIdx = remote.getDirectFolderChildren().indexOf(baseChild);
-			if (localIdx != -1 && remoteIdx != -1) { // folder has common root in all branches
-				if (!mergeFoldersRecursively(local.getDirectFolderChildren().get(localIdx),
-						remote.getDirectFolderChildren().get(remoteIdx), baseChild, dryRun))
+			FolderElement localChild = localChildren.get(baseChild);
+			FolderElement remoteChild = remoteChildren.get(baseChild);
+			if (localChild != null && remoteChild != null) { // folder has common root in all branches
+				if (!mergeFoldersRecursively(localChild, remoteChild, baseChild, dryRun))
 					return false; // return false, if we failed to merge one of the children
 			}
 		}
@@ -80,4 +78,11 @@ public class FolderSyncHandler {
 		return true;
 	}
 
+	private static Map<FolderElement, FolderElement> indexChildren(FolderElement folder) {
+		Map<FolderElement, FolderElement> children = new HashMap<>();
+		for (FolderElement child : folder.getDirectFolderChildren())
+			children.putIfAbsent(child, child);
+		return children;
+	}
+
 }
@@ -0,0 +1,288 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import net.mcreator.Launcher;
+import net.mcreator.generator.Generator;
+import net.mcreator.generator.GeneratorTemplate;
+import net.mcreator.workspace.Workspace;
+import net.mcreator.workspace.elements.ModElement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Persistent index of files generated for mod elements, mapping workspace-relative VCS paths to the mod element
+ * that generated them. Listing generator templates of a mod element is expensive, so the index is stored in the
+ * workspace cache dir and only elements whose definition file changed since they were indexed are listed again.
+ * <p>
+ * Elements generated or removed by the plugin update the index directly. Changes made elsewhere are picked up when
+ * the index is obtained using {@link #get(Workspace, SyncSession)}, once per sync. Definitions are compared by their
+ * blob IDs, which are taken from the git index for definitions unchanged since they were staged.
+ */
+public class GeneratedFileIndex {
+
+	private static final Logger LOG = LogManager.getLogger("VCS generated file index");
+
+	private static final Map<Workspace, GeneratedFileIndex> indices = new WeakHashMap<>();
+
+	// referenced weakly, as the index is the value of a weak map keyed by the workspace
+	private final WeakReference<Workspace> workspace;
+	private final Path workspaceRoot;
+	private final File indexFile;
+
+	// generator, its version, mod ID and package the paths were generated for, paths of all elements change if any of
+	// them changes
+	private String generatorStamp = "";
+	private final Map<String, Entry> entries = new HashMap<>();
+	private final Map<String, String> owners = new HashMap<>();
+	private boolean dirty;
+	// sync the index was last brought up to date for
+	private WeakReference<SyncSession> refreshedFor = new WeakReference<>(null);
+
+	private GeneratedFileIndex(Workspace workspace) {
+		this.workspace = new WeakReference<>(workspace);
+		this.workspaceRoot = workspace.getWorkspaceFolder().toPath().toAbsolutePath().normalize();
+		this.indexFile = new File(workspace.getFolderManager().getWorkspaceCacheDir(), "vcsGeneratedFiles");
+		read();
+	}
+
+	/**
+	 * Returns the index of the workspace, brought up to date with the mod elements of the workspace the first time it
+	 * is obtained during the sync. Only elements that are not indexed yet or whose definition file changed since they
+	 * were indexed are listed again.
+	 *
+	 * @param workspace Workspace to get the index for
+	 * @param session   Session of the sync, the index is not checked for changes again during the same sync
+	 * @return Up-to-date index of the workspace
+	 * @throws IOException if the git index could not be read
+	 */
+	public static GeneratedFileIndex get(Workspace workspace, SyncSession session) throws IOException {
+		GeneratedFileIndex index = getCached(workspace);
+		index.refresh(session);
+		return index;
+	}
+
+	/**
+	 * Returns the index of the workspace without checking mod elements for changes. Meant for callers that update
+	 * the index with the elements they generate or remove themselves.
+	 *
+	 * @param workspace Workspace to get the index for
+	 * @return Index of the workspace, as it was last loaded or updated
+	 */
+	public static GeneratedFileIndex getCached(Workspace workspace) {
+		synchronized (indices) {
+			return indices.computeIfAbsent(workspace, GeneratedFileIndex::new);
+		}
+	}
+
+	/**
+	 * @param path VCS path relative to the workspace folder, using forward slashes
+	 * @return Mod element of the workspace that generated the file, or null if the file does not belong to any
+	 */
+	@Nullable public synchronized ModElement getModElement(String path) {
+		String owner = owners.get(path);
+		return owner != null ? getWorkspace().getModElementByName(owner) : null;
+	}
+
+	/**
+	 * @param modElementName Name of the mod element
+	 * @return VCS paths of files generated for the mod element, empty if the element is not indexed
+	 */
+	public synchronized List<String> getGeneratedFiles(String modElementName) {
+		Entry entry = entries.get(modElementName);
+		return entry != null ? entry.paths() : Collections.emptyList();
+	}
+
+	/**
+	 * Lists generated files of the mod element again, needs to be called after the element is generated, on the thread
+	 * that generated it, as templates are listed using the generator, which is not thread safe.
+	 */
+	public void update(ModElement modElement) {
+		List<String> paths = listGeneratedFiles(modElement);
+		String stamp;
+		try {
+			stamp = Objects.toString(WorkingTreeBlobIds.hash(getDefinitionFile(modElement)), "");
+		} catch (IOException e) {
+			stamp = ""; // listed again on next refresh
+		}
+		synchronized (this) {
+			put(modElement.getName(), stamp, paths);
+		}
+	}
+
+	/**
+	 * Removes generated files of the mod element with the given name from the index.
+	 */
+	public synchronized void remove(String modElementName) {
+		Entry entry = entries.remove(modElementName);
+		if (entry != null) {
+			entry.paths().forEach(path -> owners.remove(path, modElementName));
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Stores the index to the workspace cache dir, if it changed since it was last stored.
+	 */
+	public synchronized void save() {
+		if (!dirty)
+			return;
+
+		StringBuilder contents = new StringBuilder(generatorStamp).append('\n');
+		entries.forEach((modElement, entry) -> {
+			contents.append(modElement).append('\t').append(entry.stamp());
+			entry.paths().forEach(path -> contents.append('\t').append(path));
+			contents.append('\n');
+		});
+
+		try {
+			Files.createDirectories(indexFile.getParentFile().toPath());
+			// written to a temporary file first, so a partially written index is never read
+			Path tmpFile = Files.createTempFile(indexFile.getParentFile().toPath(), indexFile.getName(), ".tmp");
+			Files.writeString(tmpFile, contents, StandardCharsets.UTF_8);
+			Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			dirty = false;
+		} catch (IOException e) {
+			LOG.warn("Failed to store generated file index to " + indexFile, e);
+		}
+	}
+
+	private synchronized void refresh(SyncSession session) throws IOException {
+		if (refreshedFor.get() == session)
+			return;
+
+		Workspace workspace = getWorkspace();
+		String currentGeneratorStamp = getGeneratorStamp(workspace);
+		if (!currentGeneratorStamp.equals(generatorStamp)) {
+			generatorStamp = currentGeneratorStamp;
+			entries.clear();
+			owners.clear();
+			dirty = true;
+		}
+
+		WorkingTreeBlobIds blobIds = new WorkingTreeBlobIds(session.getRepository(), workspaceRoot);
+		Set<String> removed = new HashSet<>(entries.keySet());
+		for (ModElement modElement : workspace.getModElements()) {
+			removed.remove(modElement.getName());
+			Entry entry = entries.get(modElement.getName());
+			String stamp = Objects.toString(blobIds.get(getDefinitionFile(modElement)), "");
+			if (entry == null || !entry.stamp().equals(stamp))
+				put(modElement.getName(), stamp, listGeneratedFiles(modElement));
+		}
+		removed.forEach(this::remove);
+		refreshedFor = new WeakReference<>(session);
+
+		save();
+	}
+
+	private void put(String modElementName, String stamp, List<String> paths) {
+		remove(modElementName);
+
+		// a path generated by several elements keeps belonging to the element that was indexed first
+		List<String> ownedPaths = new ArrayList<>(paths.size());
+		for (String path : paths) {
+			if (owners.putIfAbsent(path, modElementName) == null)
+				ownedPaths.add(path);
+		}
+
+		entries.put(modElementName, new Entry(stamp, ownedPaths));
+		dirty = true;
+	}
+
+	private List<String> listGeneratedFiles(ModElement modElement) {
+		List<String> paths = new ArrayList<>();
+		List<GeneratorTemplate> templates = getWorkspace().getGenerator()
+				.getModElementGeneratorTemplatesList(modElement);
+		if (templates != null) {
+			for (GeneratorTemplate generatorTemplate : templates) {
+				String path = SyncPathClassifier.toVCSPath(workspaceRoot, generatorTemplate.getFile());
+				if (path != null)
+					paths.add(path);
+			}
+		}
+		return paths;
+	}
+
+	private void read() {
+		if (!indexFile.isFile())
+			return;
+
+		try {
+			List<String> lines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+			if (lines.isEmpty())
+				return;
+
+			generatorStamp = lines.get(0);
+			for (String line : lines.subList(1, lines.size())) {
+				String[] columns = line.split("\t");
+				if (columns.length < 2)
+					continue;
+
+				List<String> paths = new ArrayList<>(columns.length - 2);
+				for (int i = 2; i < columns.length; i++) {
+					if (owners.putIfAbsent(columns[i], columns[0]) == null)
+						paths.add(columns[i]);
+				}
+				entries.put(columns[0], new Entry(columns[1], paths));
+			}
+		} catch (IOException e) {
+			LOG.warn("Failed to read generated file index from " + indexFile, e);
+			generatorStamp = "";
+			entries.clear();
+			owners.clear();
+		}
+	}
+
+	private Workspace getWorkspace() {
+		Workspace workspace = this.workspace.get();
+		if (workspace == null) // callers hold the workspace, so this only happens if the index is leaked
+			throw new IllegalStateException("Workspace of the generated file index was closed");
+		return workspace;
+	}
+
+	private static String getGeneratorStamp(Workspace workspace) {
+		Generator generator = workspace.getGenerator();
+		// templates are provided by MCreator and its plugins, so its version is included together with the generator's
+		return generator.getGeneratorName() + ':' + generator.getGeneratorConfiguration().getGeneratorBuildFileVersion()
+				+ ':' + Launcher.version.versionlong + ':' + workspace.getWorkspaceSettings().getModID() + ':'
+				+ workspace.getWorkspaceSettings().getModElementsPackage();
+	}
+
+	private File getDefinitionFile(ModElement modElement) {
+		return new File(getWorkspace().getFolderManager().getModElementsDir(), modElement.getName() + ".mod.json");
+	}
+
+	/**
+	 * @param stamp Blob ID of the definition file at the time the element was indexed, empty if it could not be read
+	 * @param paths Generated files owned by the element
+	 */
+	private record Entry(String stamp, List<String> paths) {}
+
+}
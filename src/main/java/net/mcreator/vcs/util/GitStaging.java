@@ -0,0 +1,116 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import net.mcreator.vcs.workspace.DirtyPathTracker;
+import org.eclipse.jgit.api.AddCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.StatusCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Stages working tree changes to the index. Paths are staged with a single add command, which also stages removal
+ * of paths missing in the working tree, so the index is written once. The working tree is only walked under the
+ * given paths, unless the changed paths are not known.
+ */
+public class GitStaging {
+
+	/**
+	 * @param git   Git of the workspace
+	 * @param paths Workspace-relative VCS paths of files or folders that may have changed, using forward slashes,
+	 *              or null if changed paths are not known and the whole working tree needs to be scanned
+	 * @throws GitAPIException if the paths could not be staged
+	 */
+	public static void stage(Git git, @Nullable Collection<String> paths) throws GitAPIException {
+		if (paths == null) {
+			git.add().addFilepattern(".").call();
+			return;
+		}
+
+		if (paths.isEmpty())
+			return;
+
+		AddCommand addCommand = git.add();
+		new TreeSet<>(paths).forEach(addCommand::addFilepattern); // each path is given only once
+		addCommand.call();
+	}
+
+	/**
+	 * Stages all changes of the working tree, for cases where changed paths are not known.
+	 *
+	 * @param git Git of the workspace
+	 * @throws GitAPIException if the working tree could not be staged
+	 */
+	public static void stageAll(Git git) throws GitAPIException {
+		stage(git, null);
+	}
+
+	/**
+	 * @param git   Git of the workspace
+	 * @param paths Workspace-relative VCS paths of files or folders that may have changed, using forward slashes,
+	 *              or null if changed paths are not known and the whole working tree needs to be scanned
+	 * @return Status of the given paths
+	 * @throws GitAPIException if the status could not be computed
+	 */
+	public static Status status(Git git, @Nullable Collection<String> paths) throws GitAPIException {
+		StatusCommand statusCommand = git.status();
+		if (paths != null) {
+			if (paths.isEmpty()) // a path never in the working tree, so nothing is scanned
+				statusCommand.addPath(Constants.DOT_GIT);
+			else
+				new TreeSet<>(paths).forEach(statusCommand::addPath);
+		}
+		return statusCommand.call();
+	}
+
+	/**
+	 * Stages paths of the snapshot and returns their status. If paths of the snapshot are not known, the whole
+	 * working tree is staged and scanned, and the tracker is updated with the paths that differ from HEAD.
+	 *
+	 * @param git      Git of the workspace
+	 * @param tracker  Tracker of dirty paths of the workspace, null if the workspace has none
+	 * @param snapshot Snapshot of the tracker taken before staging
+	 * @return Status of the paths that may have changed
+	 * @throws GitAPIException if the paths could not be staged or the status could not be computed
+	 */
+	public static Status stageTracked(Git git, @Nullable DirtyPathTracker tracker, DirtyPathTracker.Snapshot snapshot)
+			throws GitAPIException {
+		stage(git, snapshot.paths());
+		Status status = status(git, snapshot.paths());
+		if (tracker != null && snapshot.paths() == null)
+			tracker.markKnown(snapshot, status.getUncommittedChanges());
+		return status;
+	}
+
+	/**
+	 * @param tracker Tracker of dirty paths of the workspace, null if the workspace has none
+	 * @return Snapshot of the tracker, or a snapshot with unknown paths if there is no tracker, so the whole working
+	 * tree is staged and scanned
+	 */
+	public static DirtyPathTracker.Snapshot snapshot(@Nullable DirtyPathTracker tracker) {
+		return tracker != null ? tracker.snapshot() : new DirtyPathTracker.Snapshot(0, null);
+	}
+
+}
@@ -19,7 +19,6 @@
 
 package net.mcreator.vcs.util;
 
-import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 
 import java.io.IOException;
@@ -30,12 +29,27 @@ public interface ICustomSyncHandler {
 	/**
 	 * Handles merge conflicts that were not solved by Git using custom merger
 	 *
-	 * @param git     Git references
+	 * @param session Repository access context of this sync
+	 * @param paths   Path table of this sync, used for path lookups and to mark processed paths
 	 * @param handles Handles of files with sync/merge info
 	 * @param dryRun  True, if merge should only be tested, but not applied
 	 * @return true, if the merge required user interaction
 	 */
-	boolean handleSync(Git git, boolean hasMergeConflicts, List<FileSyncHandle> handles, boolean dryRun)
-			throws GitAPIException, IOException;
+	boolean handleSync(SyncSession session, boolean hasMergeConflicts, SyncPathTable paths,
+			List<FileSyncHandle> handles, boolean dryRun) throws GitAPIException, IOException;
+
+	/**
+	 * Predicts if the sync can be done without user interaction. Implementations should check the cheapest
+	 * things first and stop at the first thing that needs user action, instead of computing the whole merge.
+	 *
+	 * @param session Repository access context of this sync
+	 * @param paths   Path table of this sync
+	 * @param handles Handles of files with sync/merge info
+	 * @return true, if the merge can be applied silently
+	 */
+	default boolean canMergeSilently(SyncSession session, boolean hasMergeConflicts, SyncPathTable paths,
+			List<FileSyncHandle> handles) throws GitAPIException, IOException {
+		return !handleSync(session, hasMergeConflicts, paths, handles, true);
+	}
 
 }
@@ -18,22 +18,27 @@
 
 package net.mcreator.vcs.util;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import net.mcreator.Launcher;
 import net.mcreator.element.GeneratableElement;
-import net.mcreator.generator.Generator;
-import net.mcreator.generator.GeneratorTemplate;
 import net.mcreator.io.FileIO;
 import net.mcreator.ui.MCreator;
 import net.mcreator.util.MCreatorVersionNumber;
-import net.mcreator.util.diff.DiffResult;
 import net.mcreator.util.diff.GSONCompare;
-import net.mcreator.util.diff.ListDiff;
-import net.mcreator.util.diff.MapDiff;
 import net.mcreator.vcs.ui.dialogs.VCSFileMergeDialog;
 import net.mcreator.vcs.ui.dialogs.VCSWorkspaceMergeDialog;
-import net.mcreator.vcs.util.diff.DiffResultToBaseConflictFinder;
+import net.mcreator.vcs.util.diff.JsonThreeWayMerge;
+import net.mcreator.vcs.util.diff.LanguageMapMerge;
 import net.mcreator.vcs.util.diff.MergeHandle;
+import net.mcreator.vcs.util.diff.MergeHandleIndex;
 import net.mcreator.vcs.util.diff.ResultSide;
+import net.mcreator.vcs.util.diff.ThreeWayDiff;
+import net.mcreator.vcs.workspace.WorkspaceVCS;
+import net.mcreator.workspace.ModElementManager;
 import net.mcreator.workspace.TerribleWorkspaceHacks;
 import net.mcreator.workspace.Workspace;
 import net.mcreator.workspace.WorkspaceFileManager;
@@ -42,321 +47,368 @@ import net.mcreator.workspace.elements.ModElement;
 import net.mcreator.workspace.elements.SoundElement;
 import net.mcreator.workspace.elements.VariableElement;
 import net.mcreator.workspace.settings.WorkspaceSettings;
-import org.eclipse.jgit.api.Git;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.treewalk.TreeWalk;
 
+import javax.annotation.Nullable;
+import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class MCreatorWorkspaceSyncHandler implements ICustomSyncHandler {
 
+	private static final Logger LOG = LogManager.getLogger("VCS workspace sync");
+
 	private final MCreator mcreator;
 
+	private boolean workspaceAppliedInPlace = false;
+	private List<ModElementPreviewQueue.Preview> pendingPreviews = List.of();
+
 	public MCreatorWorkspaceSyncHandler(MCreator mcreator) {
 		this.mcreator = mcreator;
 	}
 
+	/**
+	 * @return true if the last sync applied the merged workspace file to the workspace in place and saved it, so the
+	 * workspace does not need to be reloaded from the file system
+	 */
+	public boolean isWorkspaceAppliedInPlace() {
+		return workspaceAppliedInPlace;
+	}
+
+	/**
+	 * Renders pictures of mod elements regenerated by the last sync. Needs to be called once the sync is done, as
+	 * pictures are rendered using the mod element manager of the workspace, which the sync uses too.
+	 */
+	public void submitPreviews() {
+		ModElementPreviewQueue.submit(mcreator, pendingPreviews);
+		pendingPreviews = List.of();
+	}
+
 	@Override
-	public boolean handleSync(Git git, boolean hasMergeConflicts, List<FileSyncHandle> handles, boolean dryRun)
-			throws GitAPIException, IOException {
+	public boolean handleSync(SyncSession session, boolean hasMergeConflicts, SyncPathTable paths,
+			List<FileSyncHandle> handles, boolean dryRun) throws GitAPIException, IOException {
 		boolean required_user_action;
 
-		List<FileSyncHandle> unprocessedHandles = new ArrayList<>(handles);
+		workspaceAppliedInPlace = false;
+		pendingPreviews = List.of();
+
+		// handles that get processed by this handler are marked as classified in the path table
+		paths.clearClassified();
 
 		Workspace localWorkspace = mcreator.getWorkspace();
-		Workspace remoteWorkspace = null;
-		Workspace baseWorkspace = null;
+		// base and remote are only diffed, so they are parsed as lightweight snapshots
+		WorkspaceSnapshot remoteWorkspace = null;
+		WorkspaceSnapshot baseWorkspace = null;
 
 		boolean conflictsInWorkspaceFile = false;
 
 		// First we check if the remote has any changes on the workspace file
-		for (FileSyncHandle handle : handles) {
-			if (handle.getBasePath().equals(localWorkspace.getFileManager().getWorkspaceFile().getName())) {
-				conflictsInWorkspaceFile =
-						handle.isUnmerged() && handle.getChangeTypeRelativeToRemote() != DiffEntry.ChangeType.DELETE;
-				if (conflictsInWorkspaceFile)
-					baseWorkspace = getVirtualWorkspace(localWorkspace, new String(handle.getBaseBytes()));
-				if (handle.getChangeTypeRelativeToRemote() != DiffEntry.ChangeType.DELETE)
-					remoteWorkspace = getVirtualWorkspace(localWorkspace, new String(handle.getRemoteBytes()));
-				else
-					remoteWorkspace = baseWorkspace;
-				unprocessedHandles.remove(handle);
-				break;
+		FileSyncHandle workspaceFileHandle = paths.getHandle(
+				localWorkspace.getFileManager().getWorkspaceFile().getName());
+		if (workspaceFileHandle != null) {
+			conflictsInWorkspaceFile = workspaceFileHandle.isUnmerged()
+					&& workspaceFileHandle.getChangeTypeRelativeToRemote() != DiffEntry.ChangeType.DELETE;
+
+			List<ResultSide> sidesToLoad = new ArrayList<>();
+			if (conflictsInWorkspaceFile)
+				sidesToLoad.add(ResultSide.BASE);
+			if (workspaceFileHandle.getChangeTypeRelativeToRemote() != DiffEntry.ChangeType.DELETE)
+				sidesToLoad.add(ResultSide.REMOTE);
+
+			// workspace files of both sides are loaded concurrently, snapshots parsed by earlier syncs are reused
+			List<WorkspaceSnapshot> snapshots = session.mapParallel(sidesToLoad,
+					side -> WorkspaceSnapshotCache.getSnapshot(workspaceFileHandle, side));
+			if (conflictsInWorkspaceFile)
+				baseWorkspace = snapshots.get(0);
+			if (workspaceFileHandle.getChangeTypeRelativeToRemote() != DiffEntry.ChangeType.DELETE)
+				remoteWorkspace = snapshots.get(snapshots.size() - 1);
+			else
+				remoteWorkspace = baseWorkspace;
+
+			if (conflictsInWorkspaceFile && !dryRun) {
+				// parts of these snapshots get moved to the local workspace, so they can not be reused later
+				WorkspaceSnapshotCache.invalidate(workspaceFileHandle.getBaseId());
+				WorkspaceSnapshotCache.invalidate(workspaceFileHandle.getRemoteId());
 			}
+			paths.markClassified(workspaceFileHandle.getPathId());
 		}
 
 		// remote workspace could be newer than the latest workspace version supported by this MCreator
 		if (remoteWorkspace != null && remoteWorkspace != baseWorkspace)
-			if (remoteWorkspace.getMCreatorVersion() > Launcher.version.versionlong
-					&& !MCreatorVersionNumber.isBuildNumberDevelopment(remoteWorkspace.getMCreatorVersion()))
-				throw new IOException("Too new workspace version: " + remoteWorkspace.getMCreatorVersion());
+			checkWorkspaceVersion(remoteWorkspace.getMCreatorVersion());
 
-		Set<MergeHandle<ModElement>> conflictingModElements = new HashSet<>();
+		MergeHandleIndex<ModElement> conflictingModElements = new MergeHandleIndex<>();
 		Map<ModElement, List<FileSyncHandle>> conflictingFilesOfModElementMap = new HashMap<>();
+		Map<ModElement, FileSyncHandle> conflictingDefinitions = new LinkedHashMap<>();
+		// mod elements are regenerated together once the merge is applied
+		RegenerationQueue regenerationQueue = new RegenerationQueue();
+
+		// known paths of the workspace are indexed once, handles are then classified without file system access,
+		// generated files are looked up in the index, which is brought up to date once per sync
+		GeneratedFileIndex.get(localWorkspace, session);
+		SyncPathClassifier classifier = new SyncPathClassifier(localWorkspace);
+		// paths written or deleted by sync in addition to the sync handles, only these are staged once sync is done
+		Set<String> touchedPaths = new HashSet<>();
+		// changes to the workspace open in the UI are collected and applied at once, after the merge is resolved
+		List<Consumer<Workspace>> workspaceChanges = new ArrayList<>();
+		// files are written once the merge is applied too, so they can be restored together with the workspace
+		Map<String, FileChange> fileChanges = new LinkedHashMap<>();
+		// copy of the workspace before sync, the workspace is restored from it if the merge can not be completed
+		JsonObject localWorkspaceCopy = null;
+		// merged workspace file sections that are not modeled by the workspace, by their names, null if removed
+		Map<String, JsonElement> mergedOtherSections = new LinkedHashMap<>();
 
 		// check for mod element changes
 		for (FileSyncHandle handle : handles) {
-			if (!handle.isUnmerged()) // if this file is not conflicting/unmerged, we skip it
+			// if this file is not conflicting/unmerged or was already processed, we skip it
+			if (!handle.isUnmerged() || paths.isClassified(handle.getPathId()))
 				continue;
 
-			File file = handle.toFileInWorkspace(localWorkspace, ResultSide.BASE);
+			SyncPathClassifier.Classification classification = classifier.classify(handle.getBasePath());
 
-			// check if this file is one of the lang files, we skip it as lang files are auto-regenerated
-			if (file.getCanonicalPath()
-					.startsWith(localWorkspace.getGenerator().getLangFilesRoot().getCanonicalPath())) {
-				unprocessedHandles.remove(handle);
+			// lang files are skipped as they are auto-regenerated
+			if (classification.category() == SyncPathClassifier.Category.LANG_FILE) {
+				paths.markClassified(handle.getPathId());
 				continue;
 			}
 
-			// test if this file belongs to mod element definitions folder
-			if (file.getCanonicalPath()
-					.startsWith(localWorkspace.getFolderManager().getModElementsDir().getCanonicalPath())) {
-				String modElement = file.getName().replace(".mod.json", "");
-				ModElement testModElementDefinition = localWorkspace.getModElementByName(modElement);
-				if (testModElementDefinition != null) {
-					conflictingModElements.add(new MergeHandle<>(testModElementDefinition, testModElementDefinition,
-							handle.getChangeTypeRelativeToLocal(), handle.getChangeTypeRelativeToRemote()));
-					// add conflicting file of mod element to the list
-					conflictingFilesOfModElementMap.putIfAbsent(testModElementDefinition,
-							new ArrayList<>()); // init list if not already
-					conflictingFilesOfModElementMap.get(testModElementDefinition).add(handle);
-					unprocessedHandles.remove(handle);
-					continue;
-				}
-			}
-
-			// test if this file belongs to generated code of mod element
-			ModElement testGeneratedElements = localWorkspace.getGenerator().getModElementThisFileBelongsTo(file);
-			if (testGeneratedElements != null) {
-				conflictingModElements.add(new MergeHandle<>(testGeneratedElements, testGeneratedElements,
+			// file is mod element definition or belongs to generated code of mod element
+			ModElement modElement = classification.modElement();
+			if (modElement != null) {
+				conflictingModElements.add(new MergeHandle<>(modElement, modElement,
 						handle.getChangeTypeRelativeToLocal(), handle.getChangeTypeRelativeToRemote()));
 				// add conflicting file of mod element to the list
-				conflictingFilesOfModElementMap.putIfAbsent(testGeneratedElements,
-						new ArrayList<>()); // init list if not already
-				conflictingFilesOfModElementMap.get(testGeneratedElements).add(handle);
-				unprocessedHandles.remove(handle);
+				conflictingFilesOfModElementMap.putIfAbsent(modElement, new ArrayList<>()); // init list if not already
+				conflictingFilesOfModElementMap.get(modElement).add(handle);
+				if (classification.category() == SyncPathClassifier.Category.MOD_ELEMENT_DEFINITION)
+					conflictingDefinitions.put(modElement, handle);
+				paths.markClassified(handle.getPathId());
+			}
+		}
+
+		// definitions changed on both sides are merged field by field, elements merged this way only need to be
+		// regenerated, as all their other conflicting files are generated code
+		Map<ModElement, String> mergedDefinitions = mergeModElementDefinitions(session, localWorkspace,
+				conflictingDefinitions, conflictingFilesOfModElementMap);
+		Set<ModElement> mergedModElements = mergedDefinitions.keySet();
+		if (!mergedModElements.isEmpty()) {
+			conflictingModElements.removeIf(handle -> mergedModElements.contains(handle.getLocal()));
+			conflictingFilesOfModElementMap.keySet().removeAll(mergedModElements);
+			if (!dryRun) {
+				mergedDefinitions.forEach((modElement, mergedDefinition) -> {
+					FileSyncHandle handle = conflictingDefinitions.get(modElement);
+					fileChanges.put(handle.getLocalPath(), () -> Files.writeString(
+							handle.toFileInWorkspace(localWorkspace, ResultSide.LOCAL).toPath(), mergedDefinition,
+							StandardCharsets.UTF_8));
+				});
+				workspaceChanges.add(workspace -> workspace.getModElementManager().invalidateCache());
+				mergedModElements.forEach(modElement -> regenerationQueue.add(modElement, true));
 			}
 		}
 
 		MergeHandle<WorkspaceSettings> workspaceSettingsMergeHandle = null;
-		Set<MergeHandle<VariableElement>> conflictingVariableElements = new HashSet<>();
-		Set<MergeHandle<SoundElement>> conflictingSoundElements = new HashSet<>();
-		Set<MergeHandle<String>> conflictingLangMaps = new HashSet<>();
+		MergeHandleIndex<VariableElement> conflictingVariableElements = new MergeHandleIndex<>();
+		MergeHandleIndex<SoundElement> conflictingSoundElements = new MergeHandleIndex<>();
+		MergeHandleIndex<String> conflictingLangMaps = new MergeHandleIndex<>();
 		MergeHandle<FolderElement> workspaceFoldersMergeHandle = null; // for cases where we can't do automatic merge
 
 		if (conflictsInWorkspaceFile) {
+			// sections of the workspace file are independent until they are applied, so each of them is diffed on
+			// a worker of the session, the results are then applied to the merged workspace one after another
+			WorkspaceSnapshot base = baseWorkspace;
+			WorkspaceSnapshot remote = remoteWorkspace;
+			// workers diff a snapshot of the local workspace too, as the UI can modify the workspace meanwhile
+			localWorkspaceCopy = callOnEventDispatchThread(() -> serializeWorkspace(localWorkspace));
+			WorkspaceSnapshot local = WorkspaceSnapshot.fromJson(localWorkspaceCopy);
+
+			CompletableFuture<MergeHandle<WorkspaceSettings>> settingsTask = session.supplyAsync(
+					() -> diffWorkspaceSettings(base, local, remote));
+			CompletableFuture<ThreeWayDiff<ModElement>> modElementsTask = session.supplyAsync(
+					() -> ThreeWayDiff.of(base.getModElements(), local.getModElements(), remote.getModElements()));
+			// folders are only checked for conflicts here, base snapshot is not modified in dry run
+			CompletableFuture<Boolean> foldersTask = session.supplyAsync(
+					() -> FolderSyncHandler.mergeFoldersRecursively(local.getFoldersRoot(), remote.getFoldersRoot(),
+							base.getFoldersRoot(), true));
+			CompletableFuture<ThreeWayDiff<VariableElement>> variableElementsTask = session.supplyAsync(
+					() -> ThreeWayDiff.of(base.getVariableElements(), local.getVariableElements(),
+							remote.getVariableElements()));
+			CompletableFuture<ThreeWayDiff<SoundElement>> soundElementsTask = session.supplyAsync(
+					() -> ThreeWayDiff.of(base.getSoundElements(), local.getSoundElements(),
+							remote.getSoundElements()));
+			CompletableFuture<LanguageMapMerge> languageMapTask = session.supplyAsync(
+					() -> LanguageMapMerge.of(base.getLanguageMap(), local.getLanguageMap(), remote.getLanguageMap()));
+
+			// all sections are diffed before anything gets applied, conflicts of all sections are joined into merge
+			// handles of the workspace file, changes of each side are kept for the apply below
+			ThreeWayDiff<ModElement> modElementDiff = session.join(modElementsTask);
+			ThreeWayDiff<VariableElement> variableElementDiff = session.join(variableElementsTask);
+			ThreeWayDiff<SoundElement> soundElementDiff = session.join(soundElementsTask);
+			LanguageMapMerge languageMapMerge = session.join(languageMapTask);
+			// folders that can not be merged automatically are resolved as a whole
+			MergeHandle<FolderElement> foldersMergeHandle = session.join(foldersTask) ?
+					null :
+					new MergeHandle<>(local.getFoldersRoot(), remote.getFoldersRoot(), DiffEntry.ChangeType.MODIFY,
+							DiffEntry.ChangeType.MODIFY);
+			WorkspaceMergeHandles sectionMergeHandles = new WorkspaceMergeHandles(session.join(settingsTask),
+					modElementDiff.conflicts(), variableElementDiff.conflicts(), soundElementDiff.conflicts(),
+					languageMapMerge.conflicts(), foldersMergeHandle);
+			workspaceSettingsMergeHandle = sectionMergeHandles.workspaceSettingsMergeHandle();
+			workspaceFoldersMergeHandle = sectionMergeHandles.workspaceFoldersMergeHandle();
+
+			// local changes are already in the local workspace, so only remote changes are applied to it
+
 			// WORKSPACE SETTINGS
-			boolean settingsChangedRemoteToBase = !GSONCompare.deepEquals(baseWorkspace.getWorkspaceSettings(),
-					remoteWorkspace.getWorkspaceSettings());
-			boolean settingsChangedLocalToBase = !GSONCompare.deepEquals(baseWorkspace.getWorkspaceSettings(),
-					localWorkspace.getWorkspaceSettings());
-
-			// settings changed local to base and remote to base, we have conflict
-			if (settingsChangedRemoteToBase && settingsChangedLocalToBase) {
-				workspaceSettingsMergeHandle = new MergeHandle<>(localWorkspace.getWorkspaceSettings(),
-						remoteWorkspace.getWorkspaceSettings(), DiffEntry.ChangeType.MODIFY,
-						DiffEntry.ChangeType.MODIFY);
-			}
+			boolean remoteSettingsChanged = !GSONCompare.deepEquals(base.getWorkspaceSettings(),
+					remote.getWorkspaceSettings());
+			if (!dryRun && remoteSettingsChanged && workspaceSettingsMergeHandle == null)
+				workspaceChanges.add(workspace -> workspace.setWorkspaceSettings(
+						remote.getWorkspaceSettings())); // only remote changed them
 
 			// MOD ELEMENTS
-			DiffResult<ModElement> modElementListDiffLocalToBase = ListDiff.getListDiff(baseWorkspace.getModElements(),
-					localWorkspace.getModElements());
-			DiffResult<ModElement> modElementListDiffRemoteToBase = ListDiff.getListDiff(baseWorkspace.getModElements(),
-					remoteWorkspace.getModElements());
+			Set<MergeHandle<ModElement>> modElementConflicts = new HashSet<>(
+					sectionMergeHandles.conflictingModElements());
+			// metadata of elements whose definitions were merged is merged field by field too, elements whose metadata
+			// was changed differently on both sides stay conflicts, so remote metadata changes are not lost
+			for (MergeHandle<ModElement> handle : sectionMergeHandles.conflictingModElements()) {
+				if (!mergedModElements.contains(handle.getLocal()))
+					continue;
 
-			conflictingModElements.addAll(DiffResultToBaseConflictFinder.findConflicts(modElementListDiffLocalToBase,
-					modElementListDiffRemoteToBase)); // add all that were affected on both diffs to conflicting list
+				ModElement mergedModElement = mergeModElementMetadata(base, handle);
+				if (mergedModElement != null) {
+					modElementConflicts.remove(handle);
+					if (!dryRun)
+						workspaceChanges.add(workspace -> updateModElement(workspace, mergedModElement));
+				}
+			}
+			// elements whose definition converged on both sides are not conflicts, unless their files are
+			modElementConflicts.removeIf(
+					handle -> !conflictingFilesOfModElementMap.containsKey(handle.getLocal())
+							&& !mergedModElements.contains(handle.getLocal()) && isModElementDefinitionConvergent(
+							localWorkspace, paths, handle));
+			conflictingModElements.addAll(
+					modElementConflicts); // add all that were affected on both diffs to conflicting list
 
 			if (!dryRun) {
-				localWorkspace.getModElementManager().invalidateCache();
+				workspaceChanges.add(workspace -> workspace.getModElementManager().invalidateCache());
 
-				// first we remove local to base, skipping conflicted elements
-				for (ModElement removedElement : modElementListDiffLocalToBase.removed()) {
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingModElements, removedElement))
-						baseWorkspace.removeModElement(removedElement);
+				// first we remove remote to base, skipping conflicted elements
+				for (ModElement removedElement : modElementDiff.remoteToBase().removed()) {
+					if (!conflictingModElements.containsElement(removedElement))
+						workspaceChanges.add(workspace -> removeModElement(workspace, removedElement));
 				}
 
-				// then we remove remote to base, skipping conflicted elements
-				for (ModElement removedElement : modElementListDiffRemoteToBase.removed()) {
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingModElements, removedElement))
-						baseWorkspace.removeModElement(removedElement);
+				// then we add remote to base, skipping conflicted elements
+				for (ModElement addedElement : modElementDiff.remoteToBase().added()) {
+					if (!conflictingModElements.containsElement(addedElement)) {
+						workspaceChanges.add(workspace -> {
+							addedElement.reinit(workspace);
+							workspace.addModElement(addedElement);
+						});
+						// regenerate this mod element to reduce conflicts number, we also store its picture
+						// as we do not have remote images yet
+						regenerationQueue.add(addedElement, true);
+					}
 				}
 
-				// then we add local to base, skipping conflicted elements
-				for (ModElement addedElement : modElementListDiffLocalToBase.added()) {
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingModElements, addedElement)) {
-						baseWorkspace.addModElement(addedElement);
-						GeneratableElement generatableElement = addedElement.getGeneratableElement();
-						if (generatableElement != null) {
-							baseWorkspace.getGenerator().generateElement(
-									generatableElement); // regenerate this mod element to reduce conflicts number
-						}
-					}
+				// then we update elements changed only on remote
+				for (ModElement changedElement : modElementDiff.remoteToBase().changed()) {
+					if (!conflictingModElements.containsElement(changedElement))
+						workspaceChanges.add(workspace -> updateModElement(workspace, changedElement));
 				}
 
-				// then we add remote to base, skipping conflicted elements
-				for (ModElement addedElement : modElementListDiffRemoteToBase.added()) {
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingModElements, addedElement)) {
-						baseWorkspace.addModElement(addedElement);
-						GeneratableElement generatableElement = addedElement.getGeneratableElement();
-						if (generatableElement != null) {
-							baseWorkspace.getGenerator().generateElement(
-									generatableElement); // regenerate this mod element to reduce conflicts number
-							localWorkspace.getModElementManager().storeModElementPicture(
-									generatableElement); // we regenerate mod element images as we do not have remote images yet
-						}
+				// code of elements added locally is already generated for the local workspace settings, so it only
+				// needs to be regenerated if the remote changed them
+				if (remoteSettingsChanged) {
+					for (ModElement addedElement : modElementDiff.localToBase().added()) {
+						if (!conflictingModElements.containsElement(addedElement))
+							regenerationQueue.add(addedElement, false);
 					}
 				}
 			}
 
 			// WORKSPACE FOLDERS
-			if (!FolderSyncHandler.mergeFoldersRecursively(localWorkspace.getFoldersRoot(),
-					remoteWorkspace.getFoldersRoot(), baseWorkspace.getFoldersRoot(), dryRun)) {
-				// mergeFoldersRecursively returned false -> failed to auto-merge, prepare merge handle
-				workspaceFoldersMergeHandle = new MergeHandle<>(localWorkspace.getFoldersRoot(),
-						remoteWorkspace.getFoldersRoot(), DiffEntry.ChangeType.MODIFY, DiffEntry.ChangeType.MODIFY);
+			// if folders could not be merged automatically, they are resolved by the merge handle of the section
+			if (workspaceFoldersMergeHandle == null && !dryRun) {
+				// folders are merged into the base tree, which then replaces the local one
+				FolderSyncHandler.mergeFoldersRecursively(local.getFoldersRoot(), remote.getFoldersRoot(),
+						base.getFoldersRoot(), false);
+				workspaceChanges.add(workspace -> replaceFolders(workspace, base.getFoldersRoot()));
 			}
 
 			// VARIABLE ELEMENTS (same concept as for mod elements)
-			DiffResult<VariableElement> variableElementListDiffLocalToBase = ListDiff.getListDiff(
-					baseWorkspace.getVariableElements(), localWorkspace.getVariableElements());
-			DiffResult<VariableElement> variableElementListDiffRemoteToBase = ListDiff.getListDiff(
-					baseWorkspace.getVariableElements(), remoteWorkspace.getVariableElements());
-
-			conflictingVariableElements.addAll(
-					DiffResultToBaseConflictFinder.findConflicts(variableElementListDiffLocalToBase,
-							variableElementListDiffRemoteToBase));
+			conflictingVariableElements.addAll(sectionMergeHandles.conflictingVariableElements());
 
 			if (!dryRun) {
-				for (VariableElement removedVariableElement : variableElementListDiffLocalToBase.removed())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingVariableElements,
-							removedVariableElement))
-						baseWorkspace.removeVariableElement(removedVariableElement);
-
-				for (VariableElement removedVariableElement : variableElementListDiffRemoteToBase.removed())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingVariableElements,
-							removedVariableElement))
-						baseWorkspace.removeVariableElement(removedVariableElement);
-
-				for (VariableElement addedVariableElement : variableElementListDiffLocalToBase.added())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingVariableElements,
-							addedVariableElement))
-						baseWorkspace.addVariableElement(addedVariableElement);
-
-				for (VariableElement addedVariableElement : variableElementListDiffRemoteToBase.added())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingVariableElements,
-							addedVariableElement))
-						baseWorkspace.addVariableElement(addedVariableElement);
+				for (VariableElement removedVariableElement : variableElementDiff.remoteToBase().removed())
+					if (!conflictingVariableElements.containsElement(removedVariableElement))
+						workspaceChanges.add(workspace -> workspace.removeVariableElement(removedVariableElement));
+
+				for (VariableElement addedVariableElement : variableElementDiff.remoteToBase().added())
+					if (!conflictingVariableElements.containsElement(addedVariableElement))
+						workspaceChanges.add(workspace -> workspace.addVariableElement(addedVariableElement));
+
+				for (VariableElement changedVariableElement : variableElementDiff.remoteToBase().changed()) {
+					if (!conflictingVariableElements.containsElement(changedVariableElement)) {
+						workspaceChanges.add(workspace -> {
+							workspace.removeVariableElement(changedVariableElement);
+							workspace.addVariableElement(changedVariableElement);
+						});
+					}
+				}
 			}
 
 			// SOUND ELEMENTS (same concept as for mod elements)
-			DiffResult<SoundElement> soundElementListDiffLocalToBase = ListDiff.getListDiff(
-					baseWorkspace.getSoundElements(), localWorkspace.getSoundElements());
-			DiffResult<SoundElement> soundElementListDiffRemoteToBase = ListDiff.getListDiff(
-					baseWorkspace.getSoundElements(), remoteWorkspace.getSoundElements());
-
-			conflictingSoundElements.addAll(
-					DiffResultToBaseConflictFinder.findConflicts(soundElementListDiffLocalToBase,
-							soundElementListDiffRemoteToBase));
+			conflictingSoundElements.addAll(sectionMergeHandles.conflictingSoundElements());
 
 			if (!dryRun) {
-				for (SoundElement removedSoundElement : soundElementListDiffLocalToBase.removed())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingSoundElements, removedSoundElement))
-						baseWorkspace.removeSoundElement(removedSoundElement);
-
-				for (SoundElement removedSoundElement : soundElementListDiffRemoteToBase.removed())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingSoundElements, removedSoundElement))
-						baseWorkspace.removeSoundElement(removedSoundElement);
-
-				for (SoundElement addedSoundElement : soundElementListDiffLocalToBase.added())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingSoundElements, addedSoundElement))
-						baseWorkspace.addSoundElement(addedSoundElement);
-
-				for (SoundElement addedSoundElement : soundElementListDiffRemoteToBase.added())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingSoundElements, addedSoundElement))
-						baseWorkspace.addSoundElement(addedSoundElement);
+				for (SoundElement removedSoundElement : soundElementDiff.remoteToBase().removed())
+					if (!conflictingSoundElements.containsElement(removedSoundElement))
+						workspaceChanges.add(workspace -> workspace.removeSoundElement(removedSoundElement));
+
+				for (SoundElement addedSoundElement : soundElementDiff.remoteToBase().added())
+					if (!conflictingSoundElements.containsElement(addedSoundElement))
+						workspaceChanges.add(workspace -> workspace.addSoundElement(addedSoundElement));
+
+				for (SoundElement changedSoundElement : soundElementDiff.remoteToBase().changed()) {
+					if (!conflictingSoundElements.containsElement(changedSoundElement)) {
+						workspaceChanges.add(workspace -> {
+							workspace.removeSoundElement(changedSoundElement);
+							workspace.addSoundElement(changedSoundElement);
+						});
+					}
+				}
 			}
 
 			// LANGUAGE MAP
-			Map<String, LinkedHashMap<String, String>> base_language_map = baseWorkspace.getLanguageMap();
-			Map<String, LinkedHashMap<String, String>> local_language_map = localWorkspace.getLanguageMap();
-			Map<String, LinkedHashMap<String, String>> remote_language_map = remoteWorkspace.getLanguageMap();
-
-			DiffResult<String> langMapDiffLocalToBase = MapDiff.getMapDiff(base_language_map, local_language_map);
-			DiffResult<String> langMapDiffRemoteToBase = MapDiff.getMapDiff(base_language_map, remote_language_map);
-
-			conflictingLangMaps.addAll(
-					DiffResultToBaseConflictFinder.findConflicts(langMapDiffLocalToBase, langMapDiffRemoteToBase));
-
-			if (!dryRun) {
-				for (String removedLangMap : langMapDiffLocalToBase.removed())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangMaps, removedLangMap))
-						baseWorkspace.getLanguageMap().remove(removedLangMap);
-
-				for (String removedLangMap : langMapDiffRemoteToBase.removed())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangMaps, removedLangMap))
-						baseWorkspace.getLanguageMap().remove(removedLangMap);
-
-				for (String addedLangMap : langMapDiffLocalToBase.added())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangMaps, addedLangMap))
-						if (localWorkspace.getLanguageMap().get(addedLangMap) != null)
-							baseWorkspace.getLanguageMap()
-									.put(addedLangMap, localWorkspace.getLanguageMap().get(addedLangMap));
-
-				for (String addedLangMap : langMapDiffRemoteToBase.added())
-					if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangMaps, addedLangMap))
-						if (remoteWorkspace.getLanguageMap().get(addedLangMap) != null)
-							baseWorkspace.getLanguageMap()
-									.put(addedLangMap, remoteWorkspace.getLanguageMap().get(addedLangMap));
-			}
-
-			Set<MergeHandle<String>> conflictingLangMapsTmp = new HashSet<>(conflictingLangMaps);
-			for (MergeHandle<String> langMergeHandle : conflictingLangMapsTmp) {
-				// we can only merge automatically modify type changes, we can't merge
-				if (langMergeHandle.getLocalChange() == DiffEntry.ChangeType.MODIFY
-						&& langMergeHandle.getRemoteChange() == DiffEntry.ChangeType.MODIFY) {
-					String language = langMergeHandle.getLocal();
-
-					LinkedHashMap<String, String> base_translation = base_language_map.get(language);
-					LinkedHashMap<String, String> local_translation = local_language_map.get(language);
-					LinkedHashMap<String, String> remote_translation = remote_language_map.get(language);
-
-					DiffResult<String> langMapContentsDiffLocalToBase = MapDiff.getMapDiff(base_translation,
-							local_translation);
-					DiffResult<String> langMapContentsDiffRemoteToBase = MapDiff.getMapDiff(base_translation,
-							remote_translation);
-
-					Set<MergeHandle<String>> conflictingLangEntries = DiffResultToBaseConflictFinder.findConflicts(
-							langMapContentsDiffLocalToBase, langMapContentsDiffRemoteToBase);
-
-					for (String removedLangEntry : langMapContentsDiffLocalToBase.removed())
-						if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangEntries, removedLangEntry))
-							baseWorkspace.removeLocalizationEntryByKey(removedLangEntry);
-
-					for (String removedLangEntry : langMapContentsDiffRemoteToBase.removed())
-						if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangEntries, removedLangEntry))
-							baseWorkspace.removeLocalizationEntryByKey(removedLangEntry);
-
-					for (String addedLangEntry : langMapContentsDiffLocalToBase.added())
-						if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangEntries, addedLangEntry))
-							baseWorkspace.getLanguageMap().get(language).put(addedLangEntry,
-									localWorkspace.getLanguageMap().get(language).get(addedLangEntry));
-
-					for (String addedLangEntry : langMapContentsDiffRemoteToBase.added())
-						if (MergeHandle.isElementNotInMergeHandleCollection(conflictingLangEntries, addedLangEntry))
-							baseWorkspace.getLanguageMap().get(language).put(addedLangEntry,
-									remoteWorkspace.getLanguageMap().get(language).get(addedLangEntry));
-
-					// if it can merge silently (no conflicts), we remove this merge handle from conflicting language maps
-					// as we will do auto merge
-					if (conflictingLangEntries.isEmpty())
-						conflictingLangMaps.remove(langMergeHandle);
-				}
-			}
+			// languages are merged key by key, only languages with keys changed differently on both sides conflict
+			conflictingLangMaps.addAll(sectionMergeHandles.conflictingLangMaps());
+			if (!dryRun)
+				workspaceChanges.add(workspace -> languageMapMerge.apply(workspace.getLanguageMap()));
+
+			// OTHER SECTIONS
+			// sections the workspace snapshots do not model (e.g. tags) are merged as JSON trees
+			if (!dryRun)
+				mergedOtherSections.putAll(mergeOtherSections(base, local, remote));
 		}
 
 		// next we can decide if required_user_action will be needed
@@ -368,6 +420,19 @@ public class MCreatorWorkspaceSyncHandler implements ICustomSyncHandler {
 		required_user_action = workspace_manual_merge_required;
 
 		if (!dryRun && workspace_manual_merge_required) {
+			// elements parsed from the local and remote workspace files are bound to the local workspace before they
+			// are shown, elements of the workspace itself are already bound to it
+			if (conflictsInWorkspaceFile) {
+				for (MergeHandle<ModElement> modElementMergeHandle : conflictingModElements) {
+					ModElement workspaceModElement = localWorkspace.getModElementByName(
+							modElementMergeHandle.getLocal().getName());
+					if (modElementMergeHandle.getLocal() != workspaceModElement)
+						modElementMergeHandle.getLocal().reinit(localWorkspace);
+					if (modElementMergeHandle.getRemote() != workspaceModElement)
+						modElementMergeHandle.getRemote().reinit(localWorkspace);
+				}
+			}
+
 			// Show workspace merge dialog
 			VCSWorkspaceMergeDialog.show(mcreator,
 					new WorkspaceMergeHandles(workspaceSettingsMergeHandle, conflictingModElements,
@@ -375,38 +440,26 @@ public class MCreatorWorkspaceSyncHandler implements ICustomSyncHandler {
 							workspaceFoldersMergeHandle));
 
 			// after UI merge is complete, we apply the merge to the workspace
+			// where the local side was selected, the local workspace already is in the selected state
 
-			if (conflictsInWorkspaceFile && workspaceSettingsMergeHandle != null)
-				baseWorkspace.setWorkspaceSettings(workspaceSettingsMergeHandle.getSelectedResult());
+			if (conflictsInWorkspaceFile && isRemoteSelected(workspaceSettingsMergeHandle)) {
+				WorkspaceSettings selectedSettings = workspaceSettingsMergeHandle.getSelectedResult();
+				workspaceChanges.add(workspace -> workspace.setWorkspaceSettings(selectedSettings));
+			}
 
-			if (conflictsInWorkspaceFile && workspaceFoldersMergeHandle != null) {
-				baseWorkspace.getFoldersRoot().getDirectFolderChildren()
-						.forEach(baseWorkspace.getFoldersRoot()::removeChild);
-				workspaceFoldersMergeHandle.getSelectedResult().getDirectFolderChildren()
-						.forEach(baseWorkspace.getFoldersRoot()::addChild);
+			if (conflictsInWorkspaceFile && isRemoteSelected(workspaceFoldersMergeHandle)) {
+				FolderElement selectedFolders = workspaceFoldersMergeHandle.getSelectedResult();
+				workspaceChanges.add(workspace -> replaceFolders(workspace, selectedFolders));
 			}
 
 			for (MergeHandle<ModElement> modElementMergeHandle : conflictingModElements) {
-				if (conflictsInWorkspaceFile) {
-					if (modElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.ADD) {
-						baseWorkspace.addModElement(modElementMergeHandle.getSelectedResult());
-					} else if (modElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.DELETE) {
-						baseWorkspace.removeModElement(modElementMergeHandle.getSelectedResult());
-					} else if (modElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.MODIFY) {
-						ModElement element = modElementMergeHandle.getSelectedResult();
-						for (ModElement el : baseWorkspace.getModElements()) {
-							if (el == element || el.getName().equals(element.getName())) {
-								el.loadDataFrom(element);
-
-								// update ME and MCItem icons
-								el.reloadElementIcon();
-								el.getMCItems().forEach(mcItem -> mcItem.icon.getImage().flush());
-
-								break; // there can be only one element with given name so no need to iterate further
-							}
-						}
-						baseWorkspace.markDirty();
-					}
+				if (conflictsInWorkspaceFile && isRemoteSelected(modElementMergeHandle)) {
+					if (modElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.DELETE)
+						workspaceChanges.add(
+								workspace -> removeModElement(workspace, modElementMergeHandle.getSelectedResult()));
+					else
+						workspaceChanges.add(
+								workspace -> updateModElement(workspace, modElementMergeHandle.getSelectedResult()));
 				}
 
 				List<FileSyncHandle> modElementFiles = conflictingFilesOfModElementMap.get(
@@ -414,110 +467,159 @@ public class MCreatorWorkspaceSyncHandler implements ICustomSyncHandler {
 
 				if (modElementFiles != null) {
 					for (FileSyncHandle fileSyncHandle : modElementFiles) {
-						mergeNormalFile(localWorkspace, fileSyncHandle, modElementMergeHandle);
+						fileChanges.put(fileSyncHandle.getPath(modElementMergeHandle.getResultSide()),
+								() -> mergeNormalFile(localWorkspace, fileSyncHandle, modElementMergeHandle));
 					}
 				}
 
-				// at last, we regenerate these mod elements too
-				GeneratableElement generatableElement = modElementMergeHandle.getSelectedResult()
-						.getGeneratableElement();
-				if (generatableElement != null) {
-					// regenerate this mod element to reduce conflicts number, we prefer to use baseWorkspace for this
-					Objects.requireNonNullElse(baseWorkspace, localWorkspace).getGenerator()
-							.generateElement(generatableElement);
-					localWorkspace.getModElementManager().storeModElementPicture(
-							generatableElement); // we regenerate mod element images as we do not have remote images yet
-				}
+				// at last, we regenerate these mod elements too, unless they were deleted
+				if (modElementMergeHandle.getSelectedResultChangeType() != DiffEntry.ChangeType.DELETE)
+					regenerationQueue.add(modElementMergeHandle.getSelectedResult(), true);
 			}
 
 			if (conflictsInWorkspaceFile) {
 				for (MergeHandle<VariableElement> variableElementMergeHandle : conflictingVariableElements) {
-					if (variableElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.ADD) {
-						baseWorkspace.addVariableElement(variableElementMergeHandle.getSelectedResult());
-					} else if (variableElementMergeHandle.getSelectedResultChangeType()
-							== DiffEntry.ChangeType.DELETE) {
-						baseWorkspace.removeVariableElement(variableElementMergeHandle.getSelectedResult());
-					} else if (variableElementMergeHandle.getSelectedResultChangeType()
-							== DiffEntry.ChangeType.MODIFY) {
-						for (VariableElement el : baseWorkspace.getVariableElements()) {
-							if (el.getName().equals(variableElementMergeHandle.getSelectedResult().getName())) {
-								baseWorkspace.removeVariableElement(el);
-								baseWorkspace.addVariableElement(variableElementMergeHandle.getSelectedResult());
-							}
-						}
-						baseWorkspace.markDirty();
+					if (isRemoteSelected(variableElementMergeHandle)) {
+						VariableElement selected = variableElementMergeHandle.getSelectedResult();
+						boolean deleted = variableElementMergeHandle.getSelectedResultChangeType()
+								== DiffEntry.ChangeType.DELETE;
+						workspaceChanges.add(workspace -> {
+							// elements are compared by name, so this removes the local version of the element
+							workspace.removeVariableElement(selected);
+							if (!deleted)
+								workspace.addVariableElement(selected);
+						});
 					}
 				}
 
 				for (MergeHandle<SoundElement> soundElementMergeHandle : conflictingSoundElements) {
-					if (soundElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.ADD) {
-						baseWorkspace.addSoundElement(soundElementMergeHandle.getSelectedResult());
-					} else if (soundElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.DELETE) {
-						baseWorkspace.removeSoundElement(soundElementMergeHandle.getSelectedResult());
-					} else if (soundElementMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.MODIFY) {
-						for (SoundElement el : baseWorkspace.getSoundElements()) {
-							if (el.getName().equals(soundElementMergeHandle.getSelectedResult().getName())) {
-								baseWorkspace.removeSoundElement(el);
-								baseWorkspace.addSoundElement(soundElementMergeHandle.getSelectedResult());
-							}
-						}
-						baseWorkspace.markDirty();
+					if (isRemoteSelected(soundElementMergeHandle)) {
+						SoundElement selected = soundElementMergeHandle.getSelectedResult();
+						boolean deleted = soundElementMergeHandle.getSelectedResultChangeType()
+								== DiffEntry.ChangeType.DELETE;
+						workspaceChanges.add(workspace -> {
+							// elements are compared by name, so this removes the local version of the element
+							workspace.removeSoundElement(selected);
+							if (!deleted)
+								workspace.addSoundElement(selected);
+						});
 					}
 				}
 
 				for (MergeHandle<String> langMapMergeHandle : conflictingLangMaps) {
-					if (langMapMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.ADD) {
-						if (langMapMergeHandle.getResultSide() == ResultSide.LOCAL) {
-							baseWorkspace.addLanguage(langMapMergeHandle.getSelectedResult(),
-									localWorkspace.getLanguageMap().get(langMapMergeHandle.getSelectedResult()));
-						} else if (langMapMergeHandle.getResultSide() == ResultSide.REMOTE) {
-							baseWorkspace.addLanguage(langMapMergeHandle.getSelectedResult(),
-									remoteWorkspace.getLanguageMap().get(langMapMergeHandle.getSelectedResult()));
-						}
-					} else if (langMapMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.DELETE) {
-						baseWorkspace.removeLocalizationLanguage(langMapMergeHandle.getSelectedResult());
-					} else if (langMapMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.MODIFY) {
-						if (langMapMergeHandle.getResultSide() == ResultSide.LOCAL) {
-							baseWorkspace.updateLanguage(langMapMergeHandle.getSelectedResult(),
-									localWorkspace.getLanguageMap().get(langMapMergeHandle.getSelectedResult()));
-						} else if (langMapMergeHandle.getResultSide() == ResultSide.REMOTE) {
-							baseWorkspace.updateLanguage(langMapMergeHandle.getSelectedResult(),
-									remoteWorkspace.getLanguageMap().get(langMapMergeHandle.getSelectedResult()));
+					if (isRemoteSelected(langMapMergeHandle)) {
+						String language = langMapMergeHandle.getSelectedResult();
+						if (langMapMergeHandle.getSelectedResultChangeType() == DiffEntry.ChangeType.DELETE) {
+							workspaceChanges.add(workspace -> workspace.removeLocalizationLanguage(language));
+						} else {
+							LinkedHashMap<String, String> remoteLanguage = remoteWorkspace.getLanguageMap()
+									.get(language);
+							workspaceChanges.add(workspace -> {
+								if (workspace.getLanguageMap().containsKey(language))
+									workspace.updateLanguage(language, remoteLanguage);
+								else
+									workspace.addLanguage(language, remoteLanguage);
+							});
 						}
 					}
 				}
 			}
 		}
 
-		// if remote workspace was not null, we might have a merge so we set local workspace to after merge state
-		if (conflictsInWorkspaceFile && !dryRun) {
-			// local workspace is not at the same state as merged base workspace
-			TerribleWorkspaceHacks.loadStoredDataFrom(localWorkspace, baseWorkspace);
+		// the merge is applied to the workspace on the event dispatch thread in one step, if it can not be applied,
+		// regenerated or saved, the workspace and the files written so far are restored, so they are never left
+		// partially merged
+		if (!dryRun) {
+			GeneratedFileIndex generatedFileIndex = GeneratedFileIndex.getCached(localWorkspace);
+			List<String> regeneratedModElements = regenerationQueue.getModElementNames();
+			// paths are recorded before they are written, so partially written files are restored too
+			Set<String> writtenPaths = new LinkedHashSet<>();
+			try {
+				callOnEventDispatchThread(() -> {
+					workspaceChanges.forEach(change -> change.accept(localWorkspace));
+					return null;
+				});
+
+				for (Map.Entry<String, FileChange> fileChange : fileChanges.entrySet()) {
+					writtenPaths.add(fileChange.getKey());
+					fileChange.getValue().write();
+				}
 
-			// to be sure, we save workspace and load it back from file
-			localWorkspace.getFileManager().saveWorkspaceDirectlyAndWait();
-			TerribleWorkspaceHacks.reloadFromFS(localWorkspace);
-		}
+				// regenerate merged mod elements to reduce conflicts number
+				for (String modElement : regeneratedModElements)
+					writtenPaths.addAll(generatedFileIndex.getGeneratedFiles(modElement));
+				List<GeneratableElement> pictures = regenerationQueue.run(localWorkspace, generatedFileIndex);
+				generatedFileIndex.save();
+				for (String modElement : regeneratedModElements) {
+					List<String> generatedFiles = generatedFileIndex.getGeneratedFiles(modElement);
+					touchedPaths.addAll(generatedFiles);
+					writtenPaths.addAll(generatedFiles);
+				}
+				// pictures are rendered once sync is done, their cache keys are computed here on the generating thread
+				try {
+					pendingPreviews = ModElementPreviewQueue.prepare(localWorkspace, session.getRepository(),
+							pictures);
+				} catch (IOException e) {
+					LOG.warn("Failed to prepare pictures of merged mod elements", e);
+				}
 
-		// process workspace base files
-		List<GeneratorTemplate> modBaseTemplates = localWorkspace.getGenerator().getModBaseGeneratorTemplatesList(true);
-		for (GeneratorTemplate generatorTemplate : modBaseTemplates) {
-			for (FileSyncHandle handle : handles) {
-				if (isVCSPathThisFile(localWorkspace, handle.getBasePath(), generatorTemplate.getFile())) {
-					unprocessedHandles.remove(handle);
-					if (!dryRun)
-						generatorTemplate.getFile().delete();
+				// merge of the workspace file was applied to the local workspace in place, so it only needs to be saved
+				if (conflictsInWorkspaceFile) {
+					File workspaceFile = localWorkspace.getFileManager().getWorkspaceFile();
+					writtenPaths.add(workspaceFile.getName());
+					localWorkspace.markDirty();
+					localWorkspace.getFileManager().saveWorkspaceDirectlyAndWait();
+					touchedPaths.add(workspaceFile.getName());
+
+					// sections that are not modeled by the workspace are merged into the saved file, the workspace
+					// is then reloaded from it
+					if (mergedOtherSections.isEmpty())
+						workspaceAppliedInPlace = true;
+					else
+						writeOtherSections(workspaceFile, mergedOtherSections);
 				}
+			} catch (IOException | RuntimeException e) {
+				pendingPreviews = List.of(); // merged elements are not kept
+				workspaceAppliedInPlace = false;
+				if (localWorkspaceCopy != null)
+					restoreWorkspace(localWorkspace, localWorkspaceCopy, e);
+				// files of elements that failed to generate may only be in the index
+				for (String modElement : regeneratedModElements)
+					writtenPaths.addAll(generatedFileIndex.getGeneratedFiles(modElement));
+				restoreFiles(session, localWorkspace, writtenPaths, e);
+				throw e;
 			}
 		}
-		if (!dryRun)
-			localWorkspace.getGenerator().generateBase(); // regenerate mod base for state after merge
 
-		// mark all handles that do not have conflicts as merged at this point
+		// process workspace base files, templates are resolved again as merged settings can change them
+		SyncPathClassifier mergedClassifier = new SyncPathClassifier(localWorkspace);
+		boolean modBaseTemplatesChanged = false;
+		for (FileSyncHandle handle : handles) {
+			if (mergedClassifier.isModBaseTemplate(handle.getBasePath())) {
+				paths.markClassified(handle.getPathId());
+				modBaseTemplatesChanged = true;
+				if (!dryRun)
+					handle.toFileInWorkspace(localWorkspace, ResultSide.BASE).delete();
+			}
+		}
+
+		// regenerate mod base for state after merge, unless none of its files and inputs changed since sync last
+		// generated it
+		if (!dryRun) {
+			String modBaseFingerprint = ModBaseFingerprint.compute(localWorkspace, session.getGit().getRepository());
+			if (modBaseTemplatesChanged || !modBaseFingerprint.equals(ModBaseFingerprint.getStored(localWorkspace))) {
+				if (localWorkspace.getGenerator().generateBase())
+					ModBaseFingerprint.store(localWorkspace, modBaseFingerprint);
+				touchedPaths.addAll(mergedClassifier.getModBaseTemplates());
+				if (mergedClassifier.getLangFilesRoot() != null)
+					touchedPaths.add(mergedClassifier.getLangFilesRoot());
+			}
+		}
+
+		// handles that do not have conflicts are merged at this point
 		// as now we only need to process remaining unmerged paths
-		for (FileSyncHandle handle : handles)
-			if (!handle.isUnmerged())
-				unprocessedHandles.remove(handle);
+		List<FileSyncHandle> unprocessedHandles = handles.stream()
+				.filter(handle -> handle.isUnmerged() && !paths.isClassified(handle.getPathId())).toList();
 
 		if (!required_user_action) // if not marked as required_user_action yet, we might do this now
 			// if we have unmerged files at this point, we will need user action to merge them
@@ -537,36 +639,445 @@ public class MCreatorWorkspaceSyncHandler implements ICustomSyncHandler {
 
 		// At the end of sync/merge, we mark all handles resolved, if it is not a dry run
 		if (!dryRun) {
-			git.rm().addFilepattern(".").call();
-			git.add().addFilepattern(".").call();
+			for (FileSyncHandle handle : handles)
+				touchedPaths.add(handle.getBasePath());
+			// paths written by the sync are reported right away, without waiting for the watch service
+			WorkspaceVCS workspaceVCS = WorkspaceVCS.getVCSWorkspace(localWorkspace);
+			if (workspaceVCS != null && workspaceVCS.getDirtyPathTracker() != null)
+				workspaceVCS.getDirtyPathTracker().markDirty(touchedPaths);
+			GitStaging.stage(session.getGit(), touchedPaths);
 		}
 
 		return required_user_action;
 	}
 
-	private Workspace getVirtualWorkspace(Workspace original, String workspaceString) throws IOException {
-		return new Workspace(null) {{
-			Workspace retval = WorkspaceFileManager.gson.fromJson(workspaceString, Workspace.class);
-			if (retval == null)
-				throw new IOException("Failed to parse workspace string");
-			TerribleWorkspaceHacks.loadStoredDataFrom(this, retval);
-			this.generator = new Generator(this);
-			this.generator.setGradleCache(this.generator.getGradleCache());
-			this.fileManager = original.getFileManager();
-			this.reloadModElements();
-			this.reloadFolderStructure();
-		}};
+	@Nullable
+	private static MergeHandle<WorkspaceSettings> diffWorkspaceSettings(WorkspaceSnapshot baseWorkspace,
+			WorkspaceSnapshot localWorkspace, WorkspaceSnapshot remoteWorkspace) {
+		boolean settingsChangedRemoteToBase = !GSONCompare.deepEquals(baseWorkspace.getWorkspaceSettings(),
+				remoteWorkspace.getWorkspaceSettings());
+		boolean settingsChangedLocalToBase = !GSONCompare.deepEquals(baseWorkspace.getWorkspaceSettings(),
+				localWorkspace.getWorkspaceSettings());
+
+		// settings changed local to base and remote to base, we have conflict
+		if (settingsChangedRemoteToBase && settingsChangedLocalToBase) {
+			return new MergeHandle<>(localWorkspace.getWorkspaceSettings(), remoteWorkspace.getWorkspaceSettings(),
+					DiffEntry.ChangeType.MODIFY, DiffEntry.ChangeType.MODIFY);
+		}
+
+		return null;
+	}
+
+	@Override
+	public boolean canMergeSilently(SyncSession session, boolean hasMergeConflicts, SyncPathTable paths,
+			List<FileSyncHandle> handles) throws GitAPIException, IOException {
+		Workspace localWorkspace = mcreator.getWorkspace();
+
+		FileSyncHandle workspaceFileHandle = paths.getHandle(
+				localWorkspace.getFileManager().getWorkspaceFile().getName());
+
+		// remote workspace could be newer than the latest workspace version supported by this MCreator,
+		// only the version field is read from the remote workspace file for this check
+		if (workspaceFileHandle != null && workspaceFileHandle.getRemoteId() != null
+				&& workspaceFileHandle.getChangeTypeRelativeToRemote() != null) {
+			try (InputStream remoteWorkspaceFile = workspaceFileHandle.openStream(ResultSide.REMOTE)) {
+				checkWorkspaceVersion(readMCreatorVersion(remoteWorkspaceFile));
+			}
+		}
+
+		// the cheapest check: if git merged everything, there is nothing we would need to ask the user about
+		if (!hasMergeConflicts)
+			return true;
+
+		// next, any unmerged path that is not auto-regenerated needs user action
+		SyncPathClassifier classifier = null;
+		for (FileSyncHandle handle : handles) {
+			if (!handle.isUnmerged() || handle == workspaceFileHandle)
+				continue;
+
+			if (classifier == null) // built only if there are unmerged paths to test
+				classifier = new SyncPathClassifier(localWorkspace);
+			if (!classifier.isRegenerated(handle.getBasePath()))
+				return false;
+		}
+
+		if (workspaceFileHandle == null || !workspaceFileHandle.isUnmerged()
+				|| workspaceFileHandle.getChangeTypeRelativeToRemote() == DiffEntry.ChangeType.DELETE)
+			return true;
+
+		// then blob IDs, workspace sections only need to be compared if both sides changed the workspace file
+		ObjectId baseId = workspaceFileHandle.getBaseId();
+		ObjectId localId = workspaceFileHandle.getLocalId();
+		ObjectId remoteId = workspaceFileHandle.getRemoteId();
+		if (Objects.equals(baseId, localId) || Objects.equals(baseId, remoteId) || Objects.equals(localId, remoteId))
+			return true;
+
+		// then workspace sections, if no section was changed differently on both sides, there can be no conflicts
+		// only section digests are compared, digests of workspace files seen before are read from the cache
+		File digestCacheDir = new File(localWorkspace.getFolderManager().getWorkspaceCacheDir(), "vcsSectionDigests");
+		List<Map<String, String>> sideSections = session.mapParallel(
+				List.of(ResultSide.BASE, ResultSide.LOCAL, ResultSide.REMOTE),
+				side -> WorkspaceSnapshotCache.getSectionDigests(workspaceFileHandle, side, digestCacheDir));
+		Map<String, String> baseSections = sideSections.get(0);
+		Map<String, String> localSections = sideSections.get(1);
+		Map<String, String> remoteSections = sideSections.get(2);
+
+		Set<String> sections = new HashSet<>(baseSections.keySet());
+		sections.addAll(localSections.keySet());
+		sections.addAll(remoteSections.keySet());
+		for (String section : sections) {
+			String base = baseSections.get(section);
+			String local = localSections.get(section);
+			String remote = remoteSections.get(section);
+			if (!Objects.equals(base, local) && !Objects.equals(base, remote) && !Objects.equals(local, remote)) {
+				// only now we need to do a full dry run of the workspace merge
+				return !handleSync(session, hasMergeConflicts, paths, handles, true);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Merges definitions of mod elements modified on both sides field by field. Definitions are only merged if none of
+	 * their fields was changed differently on both sides, and if all other conflicting files of the element are
+	 * regenerated afterwards, which is not the case for elements with locked code.
+	 *
+	 * @return Merged definitions of mod elements whose definitions could be merged, these are not stored yet
+	 */
+	private static Map<ModElement, String> mergeModElementDefinitions(SyncSession session, Workspace workspace,
+			Map<ModElement, FileSyncHandle> definitions, Map<ModElement, List<FileSyncHandle>> conflictingFiles)
+			throws IOException {
+		List<ModElement> mergeable = new ArrayList<>();
+		for (Map.Entry<ModElement, FileSyncHandle> definition : definitions.entrySet()) {
+			FileSyncHandle handle = definition.getValue();
+			if (handle.getBaseId() == null || handle.getLocalId() == null || handle.getRemoteId() == null)
+				continue;
+			if (definition.getKey().isCodeLocked() && conflictingFiles.get(definition.getKey()).size() > 1)
+				continue;
+			mergeable.add(definition.getKey());
+		}
+
+		// only parsing and merging of the JSON trees runs on workers, as the mod element manager is not thread safe
+		List<JsonElement> mergedTrees = session.mapParallel(mergeable, modElement -> {
+			FileSyncHandle handle = definitions.get(modElement);
+			try {
+				JsonElement base = parseDefinition(handle, ResultSide.BASE);
+				JsonElement local = parseDefinition(handle, ResultSide.LOCAL);
+				JsonElement remote = parseDefinition(handle, ResultSide.REMOTE);
+				// fields of definitions stored in different format versions or for different element types do not
+				// match, so such definitions are left to the user
+				if (!isSameInAll("_fv", base, local, remote) || !isSameInAll("_type", base, local, remote))
+					return null;
+
+				return JsonThreeWayMerge.merge(base, local, remote);
+			} catch (JsonParseException e) {
+				return null; // definitions that can not be parsed are left to the user
+			}
+		});
+
+		// merged definition is stored the way MCreator stores it, so only merged fields show up as changes, elements
+		// are converted one at a time on the sync thread
+		ModElementManager modElementManager = workspace.getModElementManager();
+		Map<ModElement, String> merged = new LinkedHashMap<>();
+		for (int i = 0; i < mergeable.size(); i++) {
+			JsonElement mergedTree = mergedTrees.get(i);
+			if (mergedTree == null)
+				continue;
+
+			try {
+				GeneratableElement generatableElement = modElementManager.fromJSONtoGeneratableElement(
+						mergedTree.toString(), mergeable.get(i));
+				if (generatableElement != null)
+					merged.put(mergeable.get(i), modElementManager.generatableElementToJSON(generatableElement));
+			} catch (JsonParseException e) {
+				// merged definitions that MCreator can not load are left to the user
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Merges workspace file sections that are not modeled by workspace snapshots. Sections changed differently on
+	 * both sides are merged field by field, if that fails, the local section is kept.
+	 *
+	 * @return Merged sections that differ from the local ones, by their names, null values mark removed sections
+	 */
+	private static Map<String, JsonElement> mergeOtherSections(WorkspaceSnapshot base, WorkspaceSnapshot local,
+			WorkspaceSnapshot remote) {
+		Set<String> sections = new LinkedHashSet<>(base.getOtherSections().keySet());
+		sections.addAll(remote.getOtherSections().keySet());
+
+		Map<String, JsonElement> merged = new LinkedHashMap<>();
+		for (String section : sections) {
+			JsonElement baseSection = base.getOtherSections().get(section);
+			JsonElement localSection = local.getOtherSections().get(section);
+			JsonElement remoteSection = remote.getOtherSections().get(section);
+			// remote did not change the section, or local already has the remote version
+			if (Objects.equals(baseSection, remoteSection) || Objects.equals(localSection, remoteSection))
+				continue;
+
+			if (Objects.equals(baseSection, localSection)) {
+				merged.put(section, remoteSection);
+				continue;
+			}
+
+			JsonElement mergedSection = baseSection != null && localSection != null && remoteSection != null ?
+					JsonThreeWayMerge.merge(baseSection, localSection, remoteSection) :
+					null;
+			if (mergedSection != null)
+				merged.put(section, mergedSection);
+			else
+				LOG.warn("Workspace file section {} was changed differently on both sides, local version is kept",
+						section);
+		}
+		return merged;
+	}
+
+	/**
+	 * Writes the merged sections to the saved workspace file, the other sections of the file are kept as saved.
+	 */
+	private static void writeOtherSections(File workspaceFile, Map<String, JsonElement> sections) throws IOException {
+		JsonElement workspace = JsonParser.parseString(
+				Files.readString(workspaceFile.toPath(), StandardCharsets.UTF_8));
+		if (!workspace.isJsonObject())
+			throw new IOException("Failed to parse saved workspace file");
+
+		sections.forEach((section, value) -> {
+			if (value != null)
+				workspace.getAsJsonObject().add(section, value);
+			else
+				workspace.getAsJsonObject().remove(section);
+		});
+		Files.writeString(workspaceFile.toPath(), WorkspaceFileManager.gson.toJson(workspace), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return Whether all definitions are objects with equal values of the field, or without the field
+	 */
+	private static boolean isSameInAll(String field, JsonElement... definitions) {
+		JsonElement value = null;
+		for (int i = 0; i < definitions.length; i++) {
+			if (!definitions[i].isJsonObject())
+				return false;
+
+			JsonElement fieldValue = definitions[i].getAsJsonObject().get(field);
+			if (i == 0)
+				value = fieldValue;
+			else if (!Objects.equals(value, fieldValue))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Merges metadata of a mod element stored in the workspace file, modified on both sides, field by field.
+	 *
+	 * @return Mod element with merged metadata, or null if the element was not modified on both sides or its metadata
+	 * was changed differently on both sides
+	 */
+	@Nullable private static ModElement mergeModElementMetadata(WorkspaceSnapshot baseWorkspace,
+			MergeHandle<ModElement> modElementMergeHandle) {
+		if (modElementMergeHandle.getLocalChange() != DiffEntry.ChangeType.MODIFY
+				|| modElementMergeHandle.getRemoteChange() != DiffEntry.ChangeType.MODIFY)
+			return null;
+
+		ModElement baseModElement = baseWorkspace.getModElements().stream()
+				.filter(modElement -> modElement.equals(modElementMergeHandle.getLocal())).findFirst().orElse(null);
+		if (baseModElement == null)
+			return null;
+
+		JsonElement merged = JsonThreeWayMerge.merge(WorkspaceFileManager.gson.toJsonTree(baseModElement),
+				WorkspaceFileManager.gson.toJsonTree(modElementMergeHandle.getLocal()),
+				WorkspaceFileManager.gson.toJsonTree(modElementMergeHandle.getRemote()));
+		return merged != null ? WorkspaceFileManager.gson.fromJson(merged, ModElement.class) : null;
+	}
+
+	private static JsonElement parseDefinition(FileSyncHandle handle, ResultSide resultSide) throws IOException {
+		return JsonParser.parseString(
+				new String(Objects.requireNonNull(handle.getBytes(resultSide)), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Checks if the definition file of the mod element changed to the same blob on local and remote, and if the
+	 * element was stored the same way in both workspace files. Such elements were changed the same way on both sides,
+	 * for example by regenerating the same element, so they need no merge. Elements whose definition did not change
+	 * are not convergent, as their conflict is in metadata stored only in the workspace file.
+	 */
+	private static boolean isModElementDefinitionConvergent(Workspace workspace, SyncPathTable paths,
+			MergeHandle<ModElement> modElementMergeHandle) {
+		if (modElementMergeHandle.getLocalChange() == DiffEntry.ChangeType.DELETE
+				|| modElementMergeHandle.getRemoteChange() == DiffEntry.ChangeType.DELETE)
+			return false;
+
+		File definitionFile = new File(workspace.getFolderManager().getModElementsDir(),
+				modElementMergeHandle.getLocal().getName() + ".mod.json");
+		String definitionPath = workspace.getWorkspaceFolder().toPath().relativize(definitionFile.toPath()).toString()
+				.replace(File.separatorChar, '/');
+
+		// paths that ended up the same on both sides do not get sync handles, they are only marked in the path table
+		int definitionPathId = paths.getId(definitionPath);
+		return definitionPathId != -1 && paths.isConverged(definitionPathId) && GSONCompare.deepEquals(
+				modElementMergeHandle.getLocal(), modElementMergeHandle.getRemote());
+	}
+
+	/**
+	 * Serializes the workspace the same way it is stored to the workspace file. Needs to be called on the event
+	 * dispatch thread, so the workspace is not modified while it is serialized.
+	 */
+	private static JsonObject serializeWorkspace(Workspace workspace) {
+		return WorkspaceFileManager.gson.toJsonTree(workspace).getAsJsonObject();
+	}
+
+	/**
+	 * Runs the task on the event dispatch thread and waits for it, the workspace open in the UI is only read or
+	 * modified on that thread.
+	 */
+	private static <T> T callOnEventDispatchThread(Callable<T> task) throws IOException {
+		FutureTask<T> futureTask = new FutureTask<>(task);
+		if (SwingUtilities.isEventDispatchThread())
+			futureTask.run();
+		else
+			SwingUtilities.invokeLater(futureTask);
+
+		try {
+			return futureTask.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the event dispatch thread", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException)
+				throw ioException;
+			if (e.getCause() instanceof RuntimeException runtimeException)
+				throw runtimeException;
+			if (e.getCause() instanceof Error error)
+				throw error;
+			throw new IOException(e.getCause());
+		}
 	}
 
-	private boolean isVCSPathThisFile(Workspace workspace, String vcsPath, File file) throws IOException {
-		return file.getCanonicalPath().equals(new File(workspace.getWorkspaceFolder(), vcsPath).getCanonicalPath());
+	/**
+	 * Restores the workspace from the copy serialized before sync changed it. If the restore fails too, its failure is
+	 * added to the failure of sync, which is thrown either way.
+	 */
+	private static void restoreWorkspace(Workspace workspace, JsonObject workspaceCopy, Exception failure) {
+		try {
+			callOnEventDispatchThread(() -> {
+				TerribleWorkspaceHacks.reloadFromJson(workspace, workspaceCopy);
+				return null;
+			});
+		} catch (IOException | RuntimeException e) {
+			failure.addSuppressed(e);
+		}
 	}
 
-	private void mergeNormalFile(Workspace workspace, FileSyncHandle fileSyncHandle, MergeHandle<?> mergeHandle) {
+	/**
+	 * Checks out the given paths from the local commit of sync again. Paths that are not in that commit were created
+	 * by sync, as all local changes are committed before sync, so these are deleted. Failures are added to the
+	 * failure of sync.
+	 */
+	private static void restoreFiles(SyncSession session, Workspace workspace, Collection<String> paths,
+			Exception failure) {
+		ObjectId localCommit = session.getLocalCommit();
+		if (localCommit == null)
+			return;
+
+		RevTree localTree;
+		try {
+			localTree = session.getTree(localCommit);
+		} catch (IOException e) {
+			failure.addSuppressed(e);
+			return;
+		}
+
+		for (String path : paths) {
+			File file = new File(workspace.getWorkspaceFolder(), path);
+			try (TreeWalk treeWalk = TreeWalk.forPath(session.getReader(), path, localTree)) {
+				if (treeWalk == null) {
+					Files.deleteIfExists(file.toPath());
+					continue;
+				}
+
+				file.getParentFile().mkdirs();
+				try (OutputStream out = Files.newOutputStream(file.toPath())) {
+					session.getReader().open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).copyTo(out);
+				}
+			} catch (IOException | RuntimeException e) {
+				failure.addSuppressed(e);
+			}
+		}
+	}
+
+	private static void checkWorkspaceVersion(long workspaceVersion) throws IOException {
+		if (workspaceVersion > Launcher.version.versionlong && !MCreatorVersionNumber.isBuildNumberDevelopment(
+				workspaceVersion))
+			throw new IOException("Too new workspace version: " + workspaceVersion);
+	}
+
+	private static long readMCreatorVersion(InputStream workspaceFile) throws IOException {
+		JsonReader reader = new JsonReader(new InputStreamReader(workspaceFile, StandardCharsets.UTF_8));
+		reader.beginObject();
+		while (reader.hasNext()) {
+			if (reader.nextName().equals("mcreatorVersion"))
+				return reader.nextLong();
+			reader.skipValue(); // other sections are skipped without being parsed into objects
+		}
+		return 0;
+	}
+
+	/**
+	 * Removes the mod element with the same name from the workspace. Elements of workspace snapshots are not bound
+	 * to any workspace, so the instance of the target workspace is removed instead.
+	 */
+	private static void removeModElement(Workspace workspace, ModElement modElement) {
+		ModElement workspaceModElement = workspace.getModElementByName(modElement.getName());
+		if (workspaceModElement != null)
+			workspace.removeModElement(workspaceModElement);
+		GeneratedFileIndex.getCached(workspace).remove(modElement.getName());
+	}
+
+	/**
+	 * Loads data of the given element into the workspace element with the same name, or adds the element to the
+	 * workspace if there is no such element.
+	 */
+	private static void updateModElement(Workspace workspace, ModElement modElement) {
+		ModElement workspaceModElement = workspace.getModElementByName(modElement.getName());
+		if (workspaceModElement == null) {
+			modElement.reinit(workspace);
+			workspace.addModElement(modElement);
+		} else if (workspaceModElement != modElement) {
+			workspaceModElement.loadDataFrom(modElement);
+
+			// update ME and MCItem icons
+			workspaceModElement.reloadElementIcon();
+			workspaceModElement.getMCItems().forEach(mcItem -> mcItem.icon.getImage().flush());
+		}
+		workspace.markDirty();
+	}
+
+	/**
+	 * Replaces folders of the workspace with children of the given folder.
+	 */
+	private static void replaceFolders(Workspace workspace, FolderElement foldersRoot) {
+		workspace.getFoldersRoot().setChildren(new ArrayList<>(foldersRoot.getDirectFolderChildren()));
+		workspace.getFoldersRoot().updateStructure();
+	}
+
+	private static boolean isRemoteSelected(@Nullable MergeHandle<?> mergeHandle) {
+		return mergeHandle != null && mergeHandle.getResultSide() == ResultSide.REMOTE;
+	}
+
+	private static void mergeNormalFile(Workspace workspace, FileSyncHandle fileSyncHandle,
+			MergeHandle<?> mergeHandle) throws IOException {
 		if (fileSyncHandle.getChangeTypeRelativeTo(mergeHandle.getResultSide()) == DiffEntry.ChangeType.ADD
 				|| fileSyncHandle.getChangeTypeRelativeTo(mergeHandle.getResultSide()) == DiffEntry.ChangeType.MODIFY) {
-			FileIO.writeBytesToFile(fileSyncHandle.getBytes(mergeHandle.getResultSide()),
-					fileSyncHandle.toFileInWorkspace(workspace, mergeHandle.getResultSide()));
+			File file = fileSyncHandle.toFileInWorkspace(workspace, mergeHandle.getResultSide());
+			file.getParentFile().mkdirs();
+			// stream contents directly from the repository, so large assets are never fully loaded to heap
+			try (InputStream contents = fileSyncHandle.openStream(mergeHandle.getResultSide())) {
+				if (contents != null)
+					Files.copy(contents, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
 		} else if (fileSyncHandle.getChangeTypeRelativeTo(mergeHandle.getResultSide()) == DiffEntry.ChangeType.DELETE) {
 			File file = fileSyncHandle.toFileInWorkspace(workspace, mergeHandle.getResultSide());
 			if (file.isFile())
@@ -576,4 +1087,8 @@ public class MCreatorWorkspaceSyncHandler implements ICustomSyncHandler {
 		}
 	}
 
+	private interface FileChange {
+		void write() throws IOException;
+	}
+
 }
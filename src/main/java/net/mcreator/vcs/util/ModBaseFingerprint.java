@@ -0,0 +1,130 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import net.mcreator.workspace.Workspace;
+import net.mcreator.workspace.WorkspaceFileManager;
+import net.mcreator.workspace.elements.ModElement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.lib.Repository;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fingerprint of the inputs of mod base generation: generator, workspace settings, element lists, language map and
+ * definition files of mod elements. The fingerprint of the last mod base generated by sync is kept in the workspace
+ * cache dir, so sync only regenerates mod base if any of its inputs changed since then.
+ * <p>
+ * Definition files are represented by their blob IDs. IDs of definitions unchanged since they were staged are taken
+ * from the git index, so computing the fingerprint only reads definitions changed since then.
+ */
+public class ModBaseFingerprint {
+
+	private static final Logger LOG = LogManager.getLogger("VCS mod base fingerprint");
+
+	/**
+	 * @param workspace  Workspace to compute the fingerprint for
+	 * @param repository Repository of the workspace, its index is used to look up blob IDs of definitions
+	 * @return Fingerprint of the current mod base inputs of the workspace
+	 * @throws IOException if the digest algorithm is not available, or if the index or a definition can not be read
+	 */
+	public static String compute(Workspace workspace, Repository repository) throws IOException {
+		MessageDigest messageDigest;
+		try {
+			messageDigest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		update(messageDigest, workspace.getGenerator().getGeneratorName());
+		update(messageDigest, WorkspaceFileManager.gson.toJson(workspace.getWorkspaceSettings()));
+		update(messageDigest, WorkspaceFileManager.gson.toJson(workspace.getModElements()));
+		update(messageDigest, WorkspaceFileManager.gson.toJson(workspace.getVariableElements()));
+		update(messageDigest, WorkspaceFileManager.gson.toJson(workspace.getSoundElements()));
+		update(messageDigest, WorkspaceFileManager.gson.toJson(workspace.getLanguageMap()));
+
+		WorkingTreeBlobIds blobIds = new WorkingTreeBlobIds(repository,
+				workspace.getWorkspaceFolder().toPath().toAbsolutePath().normalize());
+		File modElementsDir = workspace.getFolderManager().getModElementsDir();
+		for (ModElement modElement : workspace.getModElements()) {
+			File definitionFile = new File(modElementsDir, modElement.getName() + ".mod.json");
+			update(messageDigest, modElement.getName() + ':' + blobIds.get(definitionFile));
+		}
+
+		return HexFormat.of().formatHex(messageDigest.digest());
+	}
+
+	/**
+	 * @param workspace Workspace to get the fingerprint for
+	 * @return Fingerprint of the inputs of the mod base last generated by sync, null if not known
+	 */
+	@Nullable public static String getStored(Workspace workspace) {
+		File fingerprintFile = getFingerprintFile(workspace);
+		if (!fingerprintFile.isFile())
+			return null;
+
+		try {
+			return Files.readString(fingerprintFile.toPath(), StandardCharsets.UTF_8).trim();
+		} catch (IOException e) {
+			LOG.warn("Failed to read mod base fingerprint from " + fingerprintFile, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the fingerprint of the inputs mod base was generated from.
+	 *
+	 * @param workspace   Workspace to store the fingerprint for
+	 * @param fingerprint Fingerprint computed before mod base was generated
+	 */
+	public static void store(Workspace workspace, String fingerprint) {
+		File fingerprintFile = getFingerprintFile(workspace);
+		try {
+			Files.createDirectories(fingerprintFile.getParentFile().toPath());
+			// written to a temporary file first, so a partially written fingerprint is never read
+			Path tmpFile = Files.createTempFile(fingerprintFile.getParentFile().toPath(), fingerprintFile.getName(),
+					".tmp");
+			Files.writeString(tmpFile, fingerprint, StandardCharsets.UTF_8);
+			Files.move(tmpFile, fingerprintFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.warn("Failed to store mod base fingerprint to " + fingerprintFile, e);
+		}
+	}
+
+	private static File getFingerprintFile(Workspace workspace) {
+		return new File(workspace.getFolderManager().getWorkspaceCacheDir(), "vcsModBaseFingerprint");
+	}
+
+	private static void update(MessageDigest messageDigest, @Nullable String input) {
+		messageDigest.update(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+		messageDigest.update((byte) 0); // separates inputs, so moving text between two inputs changes the digest
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import net.mcreator.element.GeneratableElement;
+import net.mcreator.ui.MCreator;
+import net.mcreator.ui.workspace.resources.TextureType;
+import net.mcreator.workspace.ModElementManager;
+import net.mcreator.workspace.Workspace;
+import net.mcreator.workspace.elements.ModElement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.lib.Repository;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Renders pictures of mod elements merged by a sync, as pictures are not part of the repository. Rendered pictures
+ * are cached by the hash of the element definition and of the workspace textures, so the same element merged again,
+ * for example from another branch, reuses the picture without rendering it. The cache keeps the most recently used
+ * pictures and drops pictures unused for a while.
+ * <p>
+ * Mod element managers are not thread safe, so cache keys are computed by {@link #prepare(Workspace, Repository,
+ * List)} on the thread that generated the elements, and pictures are rendered on the event dispatch thread once the
+ * sync is done.
+ */
+public class ModElementPreviewQueue {
+
+	private static final Logger LOG = LogManager.getLogger("VCS preview queue");
+
+	private static final int MAX_CACHED_PREVIEWS = 256;
+	private static final long CACHED_PREVIEWS_EXPIRY = TimeUnit.DAYS.toMillis(30);
+
+	/**
+	 * Computes cache keys of pictures of the given elements. Needs to be called on the thread that generated the
+	 * elements, as definitions are serialized using the mod element manager of the workspace.
+	 *
+	 * @param workspace  Workspace of the elements
+	 * @param repository Repository of the workspace, its index is used to look up blob IDs of textures
+	 * @param elements   Elements to render the pictures of
+	 * @return Pictures to render, in the order of the elements
+	 * @throws IOException if the index or a texture could not be read
+	 */
+	public static List<Preview> prepare(Workspace workspace, Repository repository, List<GeneratableElement> elements)
+			throws IOException {
+		if (elements.isEmpty())
+			return List.of();
+
+		// element definitions only refer to textures by name, so pictures depend on all textures of the workspace
+		String texturesStamp = getTexturesStamp(workspace, repository);
+		ModElementManager modElementManager = workspace.getModElementManager();
+		List<Preview> previews = new ArrayList<>(elements.size());
+		for (GeneratableElement generatableElement : elements) {
+			previews.add(new Preview(generatableElement,
+					hash(modElementManager.generatableElementToJSON(generatableElement) + '\0' + texturesStamp)));
+		}
+		return previews;
+	}
+
+	/**
+	 * Queues the pictures for rendering on the event dispatch thread and returns immediately. Each picture is rendered
+	 * in its own event, so the UI stays responsive. Once all of them are stored, mod element icons of the workspace
+	 * open in the given MCreator are reloaded. Needs to be called once the sync is done, so the mod element manager
+	 * is not used by the sync meanwhile.
+	 *
+	 * @param mcreator MCreator the pictures are rendered for
+	 * @param previews Pictures to render, as returned by {@link #prepare(Workspace, Repository, List)}
+	 */
+	public static void submit(MCreator mcreator, List<Preview> previews) {
+		if (!previews.isEmpty())
+			renderNext(mcreator, new ArrayDeque<>(previews), new ArrayList<>());
+	}
+
+	private static void renderNext(MCreator mcreator, Queue<Preview> previews, List<String> stored) {
+		SwingUtilities.invokeLater(() -> {
+			Preview preview = previews.poll();
+			if (preview != null) {
+				String name = preview.element().getModElement().getName();
+				try {
+					storePicture(mcreator.getWorkspace(), preview);
+					stored.add(name);
+				} catch (Exception e) {
+					LOG.warn("Failed to store picture of " + name, e);
+				}
+				renderNext(mcreator, previews, stored);
+				return;
+			}
+
+			// sync reloads the workspace, so elements are looked up again instead of using the rendered ones
+			for (String name : stored) {
+				ModElement modElement = mcreator.getWorkspace().getModElementByName(name);
+				if (modElement != null)
+					modElement.reloadElementIcon();
+			}
+			mcreator.reloadWorkspaceTabContents();
+		});
+	}
+
+	private static void storePicture(Workspace workspace, Preview preview) throws IOException {
+		GeneratableElement generatableElement = preview.element();
+		File picture = new File(workspace.getFolderManager().getModElementPicturesCacheDir(),
+				generatableElement.getModElement().getName() + ".png");
+
+		File previewCacheDir = new File(workspace.getFolderManager().getWorkspaceCacheDir(), "vcsPreviews");
+		File cachedPicture = new File(previewCacheDir, preview.key() + ".png");
+
+		if (cachedPicture.isFile()) {
+			Files.createDirectories(picture.getParentFile().toPath());
+			Files.copy(cachedPicture.toPath(), picture.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			CacheDirPruner.touch(cachedPicture);
+			return;
+		}
+
+		// some element types store no picture, so an older picture of the element may still be there after rendering
+		long lastModified = picture.lastModified();
+		long length = picture.length();
+		workspace.getModElementManager().storeModElementPicture(generatableElement);
+
+		if (picture.isFile() && (picture.lastModified() != lastModified || picture.length() != length)) {
+			Files.createDirectories(previewCacheDir.toPath());
+			// copied to a temporary file first, so a partially written picture is never used from the cache
+			File tmp = Files.createTempFile(previewCacheDir.toPath(), "preview", ".tmp").toFile();
+			Files.copy(picture.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			Files.move(tmp.toPath(), cachedPicture.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			CacheDirPruner.prune(previewCacheDir, MAX_CACHED_PREVIEWS, CACHED_PREVIEWS_EXPIRY);
+		}
+	}
+
+	/**
+	 * @return Hash of paths and blob IDs of all textures of the workspace
+	 */
+	private static String getTexturesStamp(Workspace workspace, Repository repository) throws IOException {
+		Path workspaceRoot = workspace.getWorkspaceFolder().toPath().toAbsolutePath().normalize();
+		WorkingTreeBlobIds blobIds = new WorkingTreeBlobIds(repository, workspaceRoot);
+
+		// texture types can share a folder, so each folder is listed once
+		Set<Path> texturesFolders = new TreeSet<>();
+		for (TextureType textureType : TextureType.values()) {
+			File texturesFolder = workspace.getFolderManager().getTexturesFolder(textureType);
+			if (texturesFolder != null && texturesFolder.isDirectory())
+				texturesFolders.add(texturesFolder.toPath().toAbsolutePath().normalize());
+		}
+
+		StringBuilder textures = new StringBuilder();
+		for (Path texturesFolder : texturesFolders) {
+			List<Path> files;
+			try (Stream<Path> walk = Files.walk(texturesFolder)) {
+				files = walk.filter(Files::isRegularFile).sorted().toList();
+			}
+			for (Path file : files)
+				textures.append(workspaceRoot.relativize(file)).append(':').append(blobIds.get(file.toFile()))
+						.append('\n');
+		}
+		return hash(textures.toString());
+	}
+
+	private static String hash(String contents) throws IOException {
+		try {
+			return HexFormat.of().formatHex(
+					MessageDigest.getInstance("SHA-1").digest(contents.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * @param element Element to render the picture of
+	 * @param key     Key of the picture in the preview cache
+	 */
+	public record Preview(GeneratableElement element, String key) {}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import net.mcreator.element.GeneratableElement;
+import net.mcreator.generator.Generator;
+import net.mcreator.workspace.Workspace;
+import net.mcreator.workspace.elements.ModElement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mod elements that need their code regenerated after a merge. Elements are collected while the merge is applied
+ * and generated together once it is done, so an element queued from several places is generated only once.
+ */
+public class RegenerationQueue {
+
+	// element names are unique in a workspace, the latest queued instance of an element is generated
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	/**
+	 * @param element      Mod element to regenerate
+	 * @param storePicture Whether the picture of the element should also be stored, for example when the element
+	 *                     comes from the remote and its picture does not exist locally yet
+	 */
+	public void add(ModElement element, boolean storePicture) {
+		entries.merge(element.getName(), new Entry(element, storePicture),
+				(queued, added) -> new Entry(added.element(), queued.storePicture() || added.storePicture()));
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return Names of queued mod elements, in queue order
+	 */
+	public List<String> getModElementNames() {
+		return List.copyOf(entries.keySet());
+	}
+
+	/**
+	 * Generates code of all queued elements on the calling thread, as MCreator generators, their template engine and
+	 * mod element managers are not thread safe. Elements with locked code are not generated, as their generated code
+	 * is maintained by the user, but their pictures are still stored if requested. Elements are looked up by name in
+	 * the workspace, as elements can be queued before the merge is applied to the workspace.
+	 *
+	 * @param workspace          Workspace whose generator is used for code generation
+	 * @param generatedFileIndex Index of generated files, updated with files of each generated element
+	 * @return Elements whose pictures should be stored, in queue order
+	 */
+	public List<GeneratableElement> run(Workspace workspace, GeneratedFileIndex generatedFileIndex) {
+		Generator generator = workspace.getGenerator();
+		List<GeneratableElement> pictures = new ArrayList<>();
+		for (Entry entry : entries.values()) {
+			ModElement element = Objects.requireNonNullElse(workspace.getModElementByName(entry.element().getName()),
+					entry.element());
+			GeneratableElement generatableElement = element.getGeneratableElement();
+			if (generatableElement == null)
+				continue;
+
+			if (!element.isCodeLocked()) {
+				generator.generateElement(generatableElement);
+				generatedFileIndex.update(element);
+			}
+			if (entry.storePicture())
+				pictures.add(generatableElement);
+		}
+		entries.clear();
+		return pictures;
+	}
+
+	private record Entry(ModElement element, boolean storePicture) {}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of blob contents loaded during a sync. The first read of a blob is served straight from the object reader
+ * and nothing is kept. Blobs read again are kept on heap until the heap budget of the store is used up, further blobs
+ * are read from the object reader again each time, as they are already stored in the object database.
+ * <p>
+ * The heap budget can be set in bytes using the {@value #HEAP_BUDGET_PROPERTY} system property.
+ */
+public class SyncBlobStore implements AutoCloseable {
+
+	public static final String HEAP_BUDGET_PROPERTY = "net.mcreator.vcs.syncHeapBudget";
+
+	private final long heapBudget;
+
+	private final Set<ObjectId> readBlobs = ConcurrentHashMap.newKeySet();
+
+	private final Map<ObjectId, byte[]> heapBlobs = new ConcurrentHashMap<>();
+	private final AtomicLong heapUsed = new AtomicLong();
+
+	public SyncBlobStore() {
+		this(Long.getLong(HEAP_BUDGET_PROPERTY, Math.min(Runtime.getRuntime().maxMemory() / 8, 256L * 1024 * 1024)));
+	}
+
+	public SyncBlobStore(long heapBudget) {
+		this.heapBudget = heapBudget;
+	}
+
+	/**
+	 * Returns the contents of the blob. Prefer {@link #openStream(ObjectReader, ObjectId)} for contents that may be
+	 * large, as the whole blob is loaded on heap.
+	 *
+	 * @param reader Reader to load the blob with if it is not in this store
+	 * @param id     ID of the blob
+	 * @return Contents of the blob, the returned array should not be modified
+	 * @throws IOException if the blob could not be loaded
+	 */
+	public byte[] getBytes(ObjectReader reader, ObjectId id) throws IOException {
+		byte[] heapBlob = heapBlobs.get(id);
+		if (heapBlob != null)
+			return heapBlob;
+
+		ObjectLoader loader = reader.open(id, Constants.OBJ_BLOB);
+		checkSize(id, loader);
+		if (readBlobs.add(id.copy())) // first read, the blob is not kept
+			return loader.getBytes(Integer.MAX_VALUE);
+
+		byte[] bytes = keep(id, loader);
+		return bytes != null ? bytes : loader.getBytes(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param reader Reader to load the blob with if it is not in this store
+	 * @param id     ID of the blob
+	 * @return Stream of the blob contents, streamed from the object reader unless the blob is kept on heap
+	 * @throws IOException if the blob could not be loaded
+	 */
+	public InputStream openStream(ObjectReader reader, ObjectId id) throws IOException {
+		byte[] heapBlob = heapBlobs.get(id);
+		if (heapBlob != null)
+			return new ByteArrayInputStream(heapBlob);
+
+		ObjectLoader loader = reader.open(id, Constants.OBJ_BLOB);
+		if (readBlobs.add(id.copy())) // first read, the blob is not kept
+			return loader.openStream();
+
+		checkSize(id, loader);
+		byte[] bytes = keep(id, loader);
+		return bytes != null ? new ByteArrayInputStream(bytes) : loader.openStream();
+	}
+
+	private static void checkSize(ObjectId id, ObjectLoader loader) throws IOException {
+		if (loader.getSize() > Integer.MAX_VALUE)
+			throw new IOException(
+					"Blob " + id.getName() + " is too large to be synced: " + loader.getSize() + " bytes");
+	}
+
+	/**
+	 * Keeps a blob that is read again on heap, if the budget allows it.
+	 *
+	 * @return Contents of the blob if it is kept on heap, null if it does not fit the budget
+	 */
+	@Nullable private byte[] keep(ObjectId id, ObjectLoader loader) throws IOException {
+		long size = loader.getSize();
+		if (loader.isLarge() || !reserveHeap(size))
+			return null;
+
+		byte[] bytes = loader.getBytes();
+		byte[] existing = heapBlobs.putIfAbsent(id.copy(), bytes);
+		if (existing != null) { // loaded by another thread meanwhile
+			heapUsed.addAndGet(-size);
+			return existing;
+		}
+		return bytes;
+	}
+
+	private boolean reserveHeap(long size) {
+		if (heapUsed.addAndGet(size) > heapBudget) {
+			heapUsed.addAndGet(-size);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return Number of bytes of blob contents kept on heap
+	 */
+	public long getHeapUsed() {
+		return heapUsed.get();
+	}
+
+	@Override public void close() {
+		readBlobs.clear();
+		heapBlobs.clear();
+		heapUsed.set(0);
+	}
+
+}
@@ -0,0 +1,213 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import net.mcreator.generator.GeneratorTemplate;
+import net.mcreator.workspace.Workspace;
+import net.mcreator.workspace.elements.ModElement;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Classifies workspace-relative VCS paths of a sync. Known paths of the workspace are resolved once, when the
+ * classifier is built, and stored in a trie of path segments, so classifying a path neither canonicalizes files nor
+ * touches the file system otherwise.
+ * <p>
+ * Paths generated for mod elements are looked up in the {@link GeneratedFileIndex} of the workspace, which is only
+ * obtained the first time a path is not matched by any other category. The index is used as it is, callers that
+ * classify paths of a sync bring it up to date using {@link GeneratedFileIndex#get(Workspace, SyncSession)} first.
+ */
+public class SyncPathClassifier {
+
+	private final Workspace workspace;
+	private final Path workspaceRoot;
+
+	@Nullable private final String langFilesRoot;
+	private final List<String> modBaseTemplates = new ArrayList<>();
+
+	private final Node root = new Node();
+	@Nullable private GeneratedFileIndex generatedFileIndex;
+
+	public SyncPathClassifier(Workspace workspace) {
+		this.workspace = workspace;
+		this.workspaceRoot = workspace.getWorkspaceFolder().toPath().toAbsolutePath().normalize();
+
+		this.langFilesRoot = toVCSPath(workspaceRoot, workspace.getGenerator().getLangFilesRoot());
+		insert(langFilesRoot, new Classification(Category.LANG_FILE, null), true);
+		insert(toVCSPath(workspaceRoot, workspace.getFileManager().getWorkspaceFile()),
+				new Classification(Category.WORKSPACE_FILE, null), false);
+
+		File modElementsDir = workspace.getFolderManager().getModElementsDir();
+		for (ModElement modElement : workspace.getModElements()) {
+			insert(toVCSPath(workspaceRoot, new File(modElementsDir, modElement.getName() + ".mod.json")),
+					new Classification(Category.MOD_ELEMENT_DEFINITION, modElement), false);
+		}
+
+		List<GeneratorTemplate> modBaseTemplates = workspace.getGenerator().getModBaseGeneratorTemplatesList(true);
+		if (modBaseTemplates != null) {
+			Classification modBaseTemplate = new Classification(Category.MOD_BASE_TEMPLATE, null);
+			for (GeneratorTemplate generatorTemplate : modBaseTemplates) {
+				String path = toVCSPath(workspaceRoot, generatorTemplate.getFile());
+				if (path != null)
+					this.modBaseTemplates.add(path);
+				insert(path, modBaseTemplate, false);
+			}
+		}
+	}
+
+	/**
+	 * @param path VCS path relative to the workspace folder, using forward slashes
+	 * @return Classification of the path, mod element is resolved for definitions and generated files of elements
+	 */
+	public Classification classify(String path) {
+		Classification classification = lookup(path);
+		if (classification != null)
+			return classification;
+
+		ModElement modElement = getGeneratedFileIndex().getModElement(path);
+		if (modElement != null)
+			return new Classification(Category.GENERATED_FILE, modElement);
+
+		return new Classification(Category.OTHER, null);
+	}
+
+	/**
+	 * Checks if the path is a lang file or a mod base template. These are regenerated after the merge, so they never
+	 * need user action. Unlike {@link #classify(String)}, this check never needs the generated file index.
+	 *
+	 * @param path VCS path relative to the workspace folder, using forward slashes
+	 * @return true if the path is regenerated after the merge
+	 */
+	public boolean isRegenerated(String path) {
+		Classification classification = lookup(path);
+		return classification != null && (classification.category() == Category.LANG_FILE
+				|| classification.category() == Category.MOD_BASE_TEMPLATE);
+	}
+
+	/**
+	 * Checks if the path is a mod base template. Like {@link #isRegenerated(String)}, this check never needs the
+	 * generated file index.
+	 *
+	 * @param path VCS path relative to the workspace folder, using forward slashes
+	 * @return true if the path is a mod base template
+	 */
+	public boolean isModBaseTemplate(String path) {
+		Classification classification = lookup(path);
+		return classification != null && classification.category() == Category.MOD_BASE_TEMPLATE;
+	}
+
+	/**
+	 * @return VCS path of the lang files root folder, null if it is not in the workspace folder
+	 */
+	@Nullable public String getLangFilesRoot() {
+		return langFilesRoot;
+	}
+
+	/**
+	 * @return VCS paths of mod base templates in the workspace folder
+	 */
+	public List<String> getModBaseTemplates() {
+		return Collections.unmodifiableList(modBaseTemplates);
+	}
+
+	private synchronized GeneratedFileIndex getGeneratedFileIndex() {
+		if (generatedFileIndex == null)
+			generatedFileIndex = GeneratedFileIndex.getCached(workspace);
+		return generatedFileIndex;
+	}
+
+	/**
+	 * @param workspaceRoot Absolute and normalized path of the workspace folder
+	 * @return Path of the file relative to the workspace folder using forward slashes, or null if the file is not in
+	 * the workspace folder
+	 */
+	@Nullable static String toVCSPath(Path workspaceRoot, @Nullable File file) {
+		if (file == null)
+			return null;
+
+		Path path = file.toPath().toAbsolutePath().normalize();
+		if (!path.startsWith(workspaceRoot) || path.equals(workspaceRoot))
+			return null;
+
+		return workspaceRoot.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * @param subtree If true, the classification applies to all paths under the given path instead of the path itself
+	 */
+	private void insert(@Nullable String path, Classification classification, boolean subtree) {
+		if (path == null)
+			return;
+
+		Node node = root;
+		for (String segment : path.split("/"))
+			node = node.children.computeIfAbsent(segment, key -> new Node());
+
+		if (subtree)
+			node.subtree = classification;
+		else
+			node.file = classification;
+	}
+
+	@Nullable private Classification lookup(String path) {
+		Classification subtreeMatch = null;
+		Node node = root;
+		int start = 0;
+		while (true) {
+			if (node.subtree != null) // deepest subtree classification applies, unless the path itself is known
+				subtreeMatch = node.subtree;
+
+			int end = path.indexOf('/', start);
+			node = node.children.get(end == -1 ? path.substring(start) : path.substring(start, end));
+			if (node == null)
+				return subtreeMatch;
+			else if (end == -1)
+				return node.file != null ? node.file : subtreeMatch;
+
+			start = end + 1;
+		}
+	}
+
+	public enum Category {
+		LANG_FILE,
+		MOD_ELEMENT_DEFINITION,
+		GENERATED_FILE,
+		MOD_BASE_TEMPLATE,
+		WORKSPACE_FILE,
+		OTHER
+	}
+
+	/**
+	 * @param category   Category of the path
+	 * @param modElement Mod element the path belongs to, for mod element definitions and generated files only
+	 */
+	public record Classification(Category category, @Nullable ModElement modElement) {}
+
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+		@Nullable private Classification file;
+		@Nullable private Classification subtree;
+
+	}
+
+}
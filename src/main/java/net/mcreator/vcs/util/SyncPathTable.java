@@ -0,0 +1,117 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-sync table of repository paths. Each path is interned once and gets a compact int ID,
+ * path flags are stored in bit sets indexed by that ID.
+ */
+public class SyncPathTable {
+
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> paths = new ArrayList<>();
+	private final List<FileSyncHandle> handles = new ArrayList<>();
+
+	private final BitSet unmerged = new BitSet();
+	private final BitSet converged = new BitSet();
+	private final BitSet classified = new BitSet();
+
+	int intern(String path) {
+		Integer id = ids.get(path);
+		if (id != null)
+			return id;
+
+		int newId = paths.size();
+		ids.put(path, newId);
+		paths.add(path);
+		handles.add(null);
+		return newId;
+	}
+
+	void markUnmerged(int id) {
+		unmerged.set(id);
+	}
+
+	void markConverged(int id) {
+		converged.set(id);
+	}
+
+	void setHandle(int id, FileSyncHandle handle) {
+		handles.set(id, handle);
+	}
+
+	/**
+	 * @param path Repository path
+	 * @return ID of the given path or -1 if this path is not known to this sync
+	 */
+	public int getId(String path) {
+		Integer id = ids.get(path);
+		return id != null ? id : -1;
+	}
+
+	public String getPath(int id) {
+		return paths.get(id);
+	}
+
+	/**
+	 * @param path Repository path
+	 * @return Sync handle of the given path or null if the path did not change on any side
+	 */
+	@Nullable public FileSyncHandle getHandle(String path) {
+		int id = getId(path);
+		return id != -1 ? handles.get(id) : null;
+	}
+
+	public boolean isUnmerged(int id) {
+		return unmerged.get(id);
+	}
+
+	/**
+	 * @param id ID of the path
+	 * @return true if the path changed on both sides to the same blob, such paths do not get sync handles
+	 */
+	public boolean isConverged(int id) {
+		return converged.get(id);
+	}
+
+	public boolean isClassified(int id) {
+		return classified.get(id);
+	}
+
+	/**
+	 * Marks the path as processed by the custom sync handler, so it does not need to be merged as a normal file
+	 *
+	 * @param id ID of the path
+	 */
+	public void markClassified(int id) {
+		classified.set(id);
+	}
+
+	public void clearClassified() {
+		classified.clear();
+	}
+
+}
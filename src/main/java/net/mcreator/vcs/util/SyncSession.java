@@ -0,0 +1,275 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository access context of a single sync. All objects of the sync are read through one reader, so its pack
+ * window and inflater get reused, and commits and trees are parsed only once by the shared rev walk.
+ * <p>
+ * Object contents can also be loaded from worker threads of {@link #mapParallel(List, SyncFunction)}, each of them
+ * gets its own reader as JGit readers are not thread safe. Other threads use the reader of the session, so they should
+ * not read objects while the thread that created the session does. The rev walk may only be used by the thread that
+ * created the session.
+ * <p>
+ * Blob contents read more than once by file sync handles are kept in the {@link SyncBlobStore} of the session.
+ */
+public class SyncSession implements AutoCloseable {
+
+	// running workers are given this long to finish once the session is closed, before their readers are closed
+	private static final long WORKER_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+	private final Git git;
+	private final ObjectInserter inserter;
+	private final ObjectReader reader;
+	private final RevWalk revWalk;
+	private final SyncBlobStore blobStore;
+
+	private final ThreadLocal<ObjectReader> threadReaders;
+	private final Queue<ObjectReader> workerReaders = new ConcurrentLinkedQueue<>();
+	@Nullable private volatile ForkJoinPool pool;
+
+	@Nullable private ObjectId localCommit;
+
+	public SyncSession(Git git) {
+		this.git = git;
+		this.inserter = git.getRepository().newObjectInserter();
+		this.reader = inserter.newReader();
+		this.revWalk = new RevWalk(reader);
+		this.blobStore = new SyncBlobStore();
+
+		this.threadReaders = ThreadLocal.withInitial(() -> {
+			ObjectReader workerReader = reader.newReader();
+			workerReaders.add(workerReader);
+			return workerReader;
+		});
+	}
+
+	public Git getGit() {
+		return git;
+	}
+
+	public Repository getRepository() {
+		return git.getRepository();
+	}
+
+	/**
+	 * @return Inserter of this session, mergers created from it read objects through the same object database
+	 */
+	public ObjectInserter getInserter() {
+		return inserter;
+	}
+
+	/**
+	 * @return Reader of the calling worker thread of this session, the session reader for any other thread
+	 */
+	public ObjectReader getReader() {
+		if (Thread.currentThread() instanceof ForkJoinWorkerThread worker && pool != null && worker.getPool() == pool)
+			return threadReaders.get();
+		return reader;
+	}
+
+	public RevWalk getRevWalk() {
+		return revWalk;
+	}
+
+	public SyncBlobStore getBlobStore() {
+		return blobStore;
+	}
+
+	void setLocalCommit(ObjectId localCommit) {
+		this.localCommit = localCommit.copy();
+	}
+
+	/**
+	 * @return Local commit of the sync running in this session, files written by sync can be restored from its tree
+	 */
+	@Nullable public ObjectId getLocalCommit() {
+		return localCommit;
+	}
+
+	/**
+	 * Parses the commit with the given ID. Commits already parsed in this session are returned from the rev walk
+	 * object cache without reading them again.
+	 *
+	 * @param commitId ID of the commit
+	 * @return Parsed commit
+	 * @throws IOException if the commit could not be read from the repository
+	 */
+	public RevCommit parseCommit(AnyObjectId commitId) throws IOException {
+		return revWalk.parseCommit(commitId);
+	}
+
+	/**
+	 * @param commitId ID of the commit
+	 * @return Root tree of the given commit
+	 * @throws IOException if the commit could not be read from the repository
+	 */
+	public RevTree getTree(AnyObjectId commitId) throws IOException {
+		return parseCommit(commitId).getTree();
+	}
+
+	/**
+	 * Applies the function to all items on a bounded worker pool. Results are returned in the order of the items,
+	 * so the output does not depend on how the work was scheduled.
+	 *
+	 * @param items    Items to process
+	 * @param function Function to apply, it should not use the rev walk of this session
+	 * @return Results in the order of the items
+	 * @throws IOException if the function failed for any of the items
+	 */
+	public <T, R> List<R> mapParallel(List<T> items, SyncFunction<T, R> function) throws IOException {
+		if (items.size() < 2) { // not worth scheduling
+			List<R> results = new ArrayList<>(items.size());
+			for (T item : items)
+				results.add(function.apply(item));
+			return results;
+		}
+
+		try {
+			return getPool().submit(() -> items.parallelStream().map(item -> {
+				try {
+					return function.apply(item);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).toList()).get();
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for sync workers");
+		}
+	}
+
+	/**
+	 * Starts the task on the worker pool of this session. Use {@link #join(CompletableFuture)} to wait for its
+	 * result.
+	 *
+	 * @param task Task to run, it should not use the rev walk of this session
+	 * @return Future result of the task
+	 */
+	public <R> CompletableFuture<R> supplyAsync(SyncTask<R> task) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return task.call();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, getPool());
+	}
+
+	/**
+	 * Waits for the result of a task started by {@link #supplyAsync(SyncTask)}.
+	 *
+	 * @param future Future result of the task
+	 * @return Result of the task
+	 * @throws IOException if the task failed
+	 */
+	public <R> R join(CompletableFuture<R> future) throws IOException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for sync workers");
+		}
+	}
+
+	/**
+	 * Rethrows failure of a worker as it was thrown by the worker, checked exceptions other than IOException are
+	 * wrapped.
+	 */
+	private static IOException unwrap(ExecutionException e) {
+		if (e.getCause() instanceof UncheckedIOException uncheckedIOException)
+			return uncheckedIOException.getCause();
+		else if (e.getCause() instanceof RuntimeException runtimeException)
+			throw runtimeException;
+		else if (e.getCause() instanceof Error error)
+			throw error;
+		return new IOException(e.getCause());
+	}
+
+	private synchronized ForkJoinPool getPool() {
+		if (pool == null)
+			pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+		return pool;
+	}
+
+	@Override public void close() throws IOException {
+		boolean workersTerminated = true;
+		ForkJoinPool pool;
+		synchronized (this) {
+			pool = this.pool;
+		}
+		if (pool != null) {
+			// workers can still be running if waiting for them failed, these are interrupted and waited for
+			pool.shutdownNow();
+			try {
+				workersTerminated = pool.awaitTermination(WORKER_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				workersTerminated = false;
+			}
+		}
+
+		revWalk.close();
+		reader.close();
+		// readers of workers that did not stop in time are left to them, as closing them could break their reads
+		if (workersTerminated) {
+			workerReaders.forEach(ObjectReader::close);
+			workerReaders.clear();
+		}
+		inserter.close();
+		blobStore.close();
+	}
+
+	public interface SyncFunction<T, R> {
+		R apply(T item) throws IOException;
+	}
+
+	public interface SyncTask<R> {
+		R call() throws IOException;
+	}
+
+}
@@ -21,130 +21,320 @@ package net.mcreator.vcs.util;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.errors.MissingObjectException;
-import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.merge.MergeStrategy;
 import org.eclipse.jgit.merge.RecursiveMerger;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 public class SyncTwoRefsWithMerge {
 
+	private static final int T_BASE = 0;
+	private static final int T_LOCAL = 1;
+	private static final int T_REMOTE = 2;
+
+	/**
+	 * Merges remote into local and lets the custom sync handler process the files git could not merge.
+	 * <p>
+	 * The returned result keeps the sync session used by the file sync handles open, so it needs to be closed by the
+	 * caller.
+	 */
 	public static SyncResult sync(Git git, @Nonnull ObjectId local, @Nonnull ObjectId remote,
 			ICustomSyncHandler customSyncHandler, @Nullable PreCustomMergeAction preCustomMergeAction, boolean dryRun)
 			throws GitAPIException, IOException {
+		return sync(new SyncSession(git), local, remote, customSyncHandler, preCustomMergeAction, dryRun);
+	}
+
+	/**
+	 * Same as {@link #sync(Git, ObjectId, ObjectId, ICustomSyncHandler, PreCustomMergeAction, boolean)}, but uses
+	 * the given session. The returned result takes over the session, so it is closed together with the result.
+	 */
+	public static SyncResult sync(SyncSession session, @Nonnull ObjectId local, @Nonnull ObjectId remote,
+			ICustomSyncHandler customSyncHandler, @Nullable PreCustomMergeAction preCustomMergeAction, boolean dryRun)
+			throws GitAPIException, IOException {
+		try {
+			return doSync(session, local, remote, customSyncHandler, preCustomMergeAction, dryRun);
+		} catch (GitAPIException | IOException | RuntimeException e) {
+			session.close();
+			throw e;
+		}
+	}
+
+	private static SyncResult doSync(SyncSession session, @Nonnull ObjectId local, @Nonnull ObjectId remote,
+			ICustomSyncHandler customSyncHandler, @Nullable PreCustomMergeAction preCustomMergeAction, boolean dryRun)
+			throws GitAPIException, IOException {
+		session.setLocalCommit(local);
 
-		RecursiveMerger merger = (RecursiveMerger) MergeStrategy.RECURSIVE.newMerger(git.getRepository(),
-				true); // in core -> dry run
-		boolean requiredCustomMergeHandler = !merger.merge(local,
+		// merger created from the session inserter is in core -> dry run
+		RecursiveMerger merger = (RecursiveMerger) MergeStrategy.RECURSIVE.newMerger(session.getInserter(),
+				session.getRepository().getConfig());
+		// not flushing keeps the shared inserter open, merged trees are flushed with the merge commit if it is applied
+		boolean requiredCustomMergeHandler = !merger.merge(false, local,
 				remote); // first we check if there are merge conflicts
 
 		List<FileSyncHandle> fileSyncHandles = new ArrayList<>();
 
+		// paths that got conflicted by git merge are interned first, so later lookups are plain bit tests
+		SyncPathTable paths = new SyncPathTable();
+		for (String unmergedPath : merger.getUnmergedPaths())
+			paths.markUnmerged(paths.intern(unmergedPath));
+
 		// get the merge base commit from the merge based used by git merger
-		RevCommit mergeBase = VCSUtils.commitFromObjectId(git, merger.getBaseCommitId());
+		ObjectId mergeBase = merger.getBaseCommitId();
 
-		AbstractTreeIterator remoteTreeParser = VCSUtils.prepareTreeParser(git, remote);
-		AbstractTreeIterator localTreeParser = VCSUtils.prepareTreeParser(git, local);
-		AbstractTreeIterator baseTreeParser = VCSUtils.prepareTreeParser(git, mergeBase);
+		// handles only keep object IDs, contents are loaded using the session reader when they are needed
+		try (TreeWalk treeWalk = new TreeWalk(session.getReader())) {
+			// walk base, local and remote trees at once, so each changed path is visited exactly once
+			treeWalk.setRecursive(true);
+			treeWalk.setFilter(TreeFilter.ANY_DIFF);
 
-		List<DiffEntry> baseToLocalDiff = git.diff().setOldTree(baseTreeParser).setNewTree(localTreeParser).call();
-		List<DiffEntry> baseToRemoteDiff = git.diff().setOldTree(baseTreeParser).setNewTree(remoteTreeParser).call();
+			if (mergeBase != null)
+				treeWalk.addTree(session.getTree(mergeBase));
+			else // histories without a common ancestor are merged against an empty tree
+				treeWalk.addTree(new EmptyTreeIterator());
+			treeWalk.addTree(session.getTree(local));
+			treeWalk.addTree(session.getTree(remote));
 
-		List<String> unmergedPaths = merger.getUnmergedPaths(); // paths that got conflicted by git merge
+			while (treeWalk.next()) {
+				ObjectId localId = getBlobId(treeWalk, T_LOCAL);
+				ObjectId remoteId = getBlobId(treeWalk, T_REMOTE);
 
-		for (DiffEntry entry : baseToLocalDiff) {
-			String basePath = entry.getOldPath();
-			String localPath = entry.getNewPath();
+				// both sides ended up with the same content (e.g. both regenerated the same element), so the path
+				// is resolved by comparing blob IDs alone and no handle or content load is needed
+				if (Objects.equals(localId, remoteId)) {
+					paths.markConverged(paths.intern(treeWalk.getPathString()));
+					continue;
+				}
 
-			ObjectLoader localObject = null, baseObject = null;
+				int pathId = paths.intern(treeWalk.getPathString());
 
-			try {
-				localObject = git.getRepository().getObjectDatabase().open(entry.getNewId().toObjectId());
-			} catch (MissingObjectException moe) {
-				localPath = basePath;
+				FileSyncHandle fileSyncHandle = new FileSyncHandle(session, paths, pathId);
+				fileSyncHandle.setLocalPath(paths.getPath(pathId));
+				fileSyncHandle.setRemotePath(paths.getPath(pathId));
+				fileSyncHandle.setBaseId(getBlobId(treeWalk, T_BASE));
+				fileSyncHandle.setLocalId(localId);
+				fileSyncHandle.setRemoteId(remoteId);
+				fileSyncHandles.add(fileSyncHandle);
+				paths.setHandle(pathId, fileSyncHandle);
 			}
 
-			try {
-				baseObject = git.getRepository().getObjectDatabase().open(entry.getOldId().toObjectId());
-			} catch (MissingObjectException moe) {
-				basePath = localPath;
-			}
+			if (preCustomMergeAction != null)
+				preCustomMergeAction.call();
 
-			FileSyncHandle fileSyncHandle = new FileSyncHandle(basePath);
-			fileSyncHandle.setLocalPath(localPath);
-			fileSyncHandle.setUnmerged(unmergedPaths.contains(basePath) || unmergedPaths.contains(localPath));
-			if (baseObject != null)
-				fileSyncHandle.setBaseBytes(baseObject.getBytes());
-			if (localObject != null)
-				fileSyncHandle.setLocalBytes(localObject.getBytes());
-			fileSyncHandles.add(fileSyncHandle);
+			// after pull, we handle merge conflicts we predicted before, dry run only needs the prediction itself
+			boolean requiredUserInteraction = dryRun ?
+					!customSyncHandler.canMergeSilently(session, requiredCustomMergeHandler, paths, fileSyncHandles) :
+					customSyncHandler.handleSync(session, requiredCustomMergeHandler, paths, fileSyncHandles, false);
 
+			return new SyncResult(requiredCustomMergeHandler, requiredUserInteraction, local.copy(), remote.copy(),
+					mergeBase, requiredCustomMergeHandler ? null : merger.getResultTreeId(), fileSyncHandles,
+					session);
 		}
+	}
 
-		for (DiffEntry entry : baseToRemoteDiff) {
-			String basePath = entry.getOldPath();
-			String remotePath = entry.getNewPath();
+	/**
+	 * Applies the result of a clean merge to the current branch without merging again. If local was not changed since
+	 * the merge base, the branch is fast-forwarded to remote, otherwise a merge commit of the merged tree is created.
+	 * Only paths that differ between the current and the new tree are checked out.
+	 *
+	 * @param syncResult Result of a merge that did not require custom merge handler
+	 * @param message    Message of the merge commit
+	 * @return ID of the new HEAD commit
+	 */
+	public static ObjectId applyMergeResult(SyncResult syncResult, String message) throws IOException {
+		if (syncResult.mergedTree() == null)
+			throw new IllegalArgumentException("Sync result has no merged tree to apply");
 
-			ObjectLoader remoteObject = null, baseObject = null;
+		SyncSession session = syncResult.session();
+		Repository repository = session.getRepository();
+		ObjectId local = syncResult.local();
 
-			try {
-				remoteObject = git.getRepository().getObjectDatabase().open(entry.getNewId().toObjectId());
-			} catch (MissingObjectException moe) {
-				remotePath = basePath;
-			}
+		ObjectId newHead;
+		if (syncResult.remote().equals(syncResult.mergeBase())) { // remote is already contained in local
+			return local;
+		} else if (local.equals(syncResult.mergeBase())) { // local has no own commits, fast-forward to remote
+			newHead = syncResult.remote();
+		} else {
+			CommitBuilder commit = new CommitBuilder();
+			commit.setTreeId(syncResult.mergedTree());
+			commit.setParentIds(local, syncResult.remote());
+			commit.setAuthor(new PersonIdent(repository));
+			commit.setCommitter(new PersonIdent(repository));
+			commit.setMessage(message);
+			newHead = session.getInserter().insert(commit);
+			session.getInserter().flush();
+		}
 
-			try {
-				baseObject = git.getRepository().getObjectDatabase().open(entry.getOldId().toObjectId());
-			} catch (MissingObjectException moe) {
-				basePath = remotePath;
-			}
+		checkoutAndMoveHead(repository, session.getRevWalk(), local, newHead,
+				newHead.equals(syncResult.remote()) ? "sync: Fast-forward" : "sync: " + message);
 
-			FileSyncHandle fileSyncHandle = null;
-			// try to find existing handle
-			for (FileSyncHandle existing : fileSyncHandles) {
-				if (existing.getBasePath().equals(basePath)) {
-					fileSyncHandle = existing;
-					break;
-				}
-			}
-			// if we fail to find a handle, make a new one
-			if (fileSyncHandle == null) {
-				fileSyncHandle = new FileSyncHandle(basePath);
-				if (baseObject != null)
-					fileSyncHandle.setBaseBytes(baseObject.getBytes());
-				fileSyncHandles.add(fileSyncHandle);
-			} else if (!fileSyncHandle.isUnmerged()) { // if not marked as unmerged yet, we might need to do it at this point
-				fileSyncHandle.setUnmerged(unmergedPaths.contains(basePath) || unmergedPaths.contains(remotePath));
-			}
+		return newHead;
+	}
 
-			if (remoteObject != null)
-				fileSyncHandle.setRemoteBytes(remoteObject.getBytes());
-			fileSyncHandle.setRemotePath(remotePath);
+	/**
+	 * Determines how local and remote relate to each other using commit reachability, so syncs that do not
+	 * need a merge can skip it completely.
+	 *
+	 * @param git    Git references
+	 * @param local  Local commit
+	 * @param remote Remote commit
+	 * @return Type of sync needed to bring local and remote together
+	 */
+	public static SyncType getSyncType(Git git, @Nonnull ObjectId local, @Nonnull ObjectId remote)
+			throws IOException {
+		if (local.equals(remote))
+			return SyncType.UP_TO_DATE;
+
+		try (RevWalk walk = new RevWalk(git.getRepository())) {
+			RevCommit localCommit = walk.parseCommit(local);
+			RevCommit remoteCommit = walk.parseCommit(remote);
+			if (walk.isMergedInto(remoteCommit, localCommit))
+				return SyncType.LOCAL_AHEAD;
+			walk.reset();
+			if (walk.isMergedInto(localCommit, remoteCommit))
+				return SyncType.FAST_FORWARD;
 		}
 
-		if (preCustomMergeAction != null)
-			preCustomMergeAction.call();
+		return SyncType.DIVERGED;
+	}
+
+	/**
+	 * Fast-forwards the current branch from local to remote. Only paths that changed between the two commits are
+	 * checked out, local changes of other paths are kept.
+	 *
+	 * @throws org.eclipse.jgit.errors.CheckoutConflictException if local changes conflict with the remote changes
+	 */
+	public static void fastForward(Git git, @Nonnull ObjectId local, @Nonnull ObjectId remote) throws IOException {
+		try (RevWalk walk = new RevWalk(git.getRepository())) {
+			checkoutAndMoveHead(git.getRepository(), walk, local, remote, "sync: Fast-forward");
+		}
+	}
 
-		// after pull, we handle merge conflicts we predicted before
-		boolean requiredUserInteraction = customSyncHandler.handleSync(git, requiredCustomMergeHandler, fileSyncHandles,
-				dryRun);
+	private static void checkoutAndMoveHead(Repository repository, RevWalk walk, ObjectId oldHead, ObjectId newHead,
+			String reflogMessage) throws IOException {
+		DirCacheCheckout checkout = new DirCacheCheckout(repository, walk.parseCommit(oldHead).getTree(),
+				repository.lockDirCache(), walk.parseCommit(newHead).getTree());
+		checkout.setFailOnConflict(true);
+		checkout.checkout();
 
-		return new SyncResult(requiredCustomMergeHandler, requiredUserInteraction);
+		RefUpdate refUpdate = repository.updateRef(Constants.HEAD);
+		refUpdate.setExpectedOldObjectId(oldHead);
+		refUpdate.setNewObjectId(newHead);
+		refUpdate.setRefLogMessage(reflogMessage, false);
+		RefUpdate.Result result = refUpdate.update();
+		if (result != RefUpdate.Result.FAST_FORWARD && result != RefUpdate.Result.NEW
+				&& result != RefUpdate.Result.NO_CHANGE)
+			throw new IOException("Failed to update HEAD to " + newHead.getName() + ": " + result);
+	}
+
+	@Nullable private static ObjectId getBlobId(TreeWalk treeWalk, int tree) {
+		return treeWalk.getFileMode(tree) == FileMode.MISSING ? null : treeWalk.getObjectId(tree);
+	}
+
+	public enum SyncType {
+		/**
+		 * Local and remote point to the same commit
+		 */
+		UP_TO_DATE,
+		/**
+		 * Remote contains all local commits, local can be fast-forwarded
+		 */
+		FAST_FORWARD,
+		/**
+		 * Local contains all remote commits, only push is needed
+		 */
+		LOCAL_AHEAD,
+		/**
+		 * Both sides have their own commits and need to be merged
+		 */
+		DIVERGED
 	}
 
 	public interface PreCustomMergeAction {
 		void call() throws GitAPIException;
 	}
 
-	public record SyncResult(boolean requiredCustomMergeHandler, boolean requiredUserAction) {}
+	/**
+	 * Result of a sync. Besides the merge outcome, it keeps the merged tree, file sync handles and the sync session,
+	 * so a clean dry run can be applied without merging again.
+	 */
+	public static final class SyncResult implements AutoCloseable {
+
+		private final boolean requiredCustomMergeHandler;
+		private final boolean requiredUserAction;
+		private final ObjectId local, remote;
+		@Nullable private final ObjectId mergeBase;
+		@Nullable private final ObjectId mergedTree;
+		private final List<FileSyncHandle> handles;
+		private final SyncSession session;
+
+		private SyncResult(boolean requiredCustomMergeHandler, boolean requiredUserAction, ObjectId local,
+				ObjectId remote, @Nullable ObjectId mergeBase, @Nullable ObjectId mergedTree,
+				List<FileSyncHandle> handles, SyncSession session) {
+			this.requiredCustomMergeHandler = requiredCustomMergeHandler;
+			this.requiredUserAction = requiredUserAction;
+			this.local = local;
+			this.remote = remote;
+			this.mergeBase = mergeBase;
+			this.mergedTree = mergedTree;
+			this.handles = Collections.unmodifiableList(handles);
+			this.session = session;
+		}
+
+		public boolean requiredCustomMergeHandler() {
+			return requiredCustomMergeHandler;
+		}
+
+		public boolean requiredUserAction() {
+			return requiredUserAction;
+		}
+
+		public ObjectId local() {
+			return local;
+		}
+
+		public ObjectId remote() {
+			return remote;
+		}
+
+		@Nullable public ObjectId mergeBase() {
+			return mergeBase;
+		}
+
+		/**
+		 * @return ID of the tree produced by git merge or null if git merge had conflicts
+		 */
+		@Nullable public ObjectId mergedTree() {
+			return mergedTree;
+		}
+
+		public List<FileSyncHandle> handles() {
+			return handles;
+		}
+
+		/**
+		 * @return Session of this sync, open until this result is closed
+		 */
+		public SyncSession session() {
+			return session;
+		}
+
+		@Override public void close() throws IOException {
+			session.close();
+		}
+
+	}
 
 }
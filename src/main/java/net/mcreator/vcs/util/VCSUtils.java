@@ -1,56 +0,0 @@
-/*
- * MCreator VCS plugin
- * Copyright (C) 2020 Pylo and contributors
- * Copyright (C) 2023, Defeatomizer
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <https://www.gnu.org/licenses/>.
- */
-
-package net.mcreator.vcs.util;
-
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.ObjectReader;
-import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevTree;
-import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.treewalk.AbstractTreeIterator;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
-
-import java.io.IOException;
-
-class VCSUtils {
-
-	static AbstractTreeIterator prepareTreeParser(Git git, ObjectId objectId) throws IOException {
-		try (RevWalk walk = new RevWalk(git.getRepository())) {
-			RevCommit commit = walk.parseCommit(objectId);
-			RevTree tree = walk.parseTree(commit.getTree().getId());
-			CanonicalTreeParser treeParser = new CanonicalTreeParser();
-			try (ObjectReader reader = git.getRepository().newObjectReader()) {
-				treeParser.reset(reader, tree.getId());
-			}
-			walk.dispose();
-			return treeParser;
-		}
-	}
-
-	static RevCommit commitFromObjectId(Git git, ObjectId objectId) throws IOException {
-		try (RevWalk walk = new RevWalk(git.getRepository())) {
-			RevCommit retval = walk.parseCommit(objectId);
-			walk.dispose();
-			return retval;
-		}
-	}
-
-}
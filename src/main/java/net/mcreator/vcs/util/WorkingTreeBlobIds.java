@@ -0,0 +1,87 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Blob IDs of files in the working tree of the workspace. IDs of files that still match their entry in the git index
+ * are taken from the index, so only files changed since they were staged are read and hashed. Not thread safe.
+ */
+public class WorkingTreeBlobIds {
+
+	private final Path workspaceRoot;
+	private final DirCache index;
+	// files modified after the index was written could have changed within its timestamp resolution
+	private final long indexModified;
+
+	/**
+	 * @param repository    Repository of the workspace, its index is read once
+	 * @param workspaceRoot Absolute and normalized path of the workspace folder
+	 * @throws IOException if the index could not be read
+	 */
+	public WorkingTreeBlobIds(Repository repository, Path workspaceRoot) throws IOException {
+		this.workspaceRoot = workspaceRoot;
+		this.index = repository.readDirCache();
+		this.indexModified = repository.getIndexFile().lastModified();
+	}
+
+	/**
+	 * @param file File in the workspace folder
+	 * @return Blob ID of the file from the index if the file matches its index entry, otherwise computed from contents
+	 * of the file, null if the file does not exist
+	 * @throws IOException if the file could not be read
+	 */
+	@Nullable public String get(File file) throws IOException {
+		if (!file.isFile())
+			return null;
+
+		String path = SyncPathClassifier.toVCSPath(workspaceRoot, file);
+		DirCacheEntry entry = path != null ? index.getEntry(path) : null;
+		long lastModified = file.lastModified();
+		if (entry != null && !entry.isSmudged() && entry.getLength() == file.length()
+				&& entry.getLastModifiedInstant().toEpochMilli() == lastModified && lastModified < indexModified)
+			return entry.getObjectId().name();
+
+		return hash(file);
+	}
+
+	/**
+	 * @param file File to hash
+	 * @return Blob ID computed from contents of the file, null if the file does not exist
+	 * @throws IOException if the file could not be read
+	 */
+	@Nullable public static String hash(File file) throws IOException {
+		if (!file.isFile())
+			return null;
+
+		return new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, Files.readAllBytes(file.toPath())).name();
+	}
+
+}
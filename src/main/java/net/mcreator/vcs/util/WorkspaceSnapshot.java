@@ -0,0 +1,187 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import net.mcreator.workspace.WorkspaceFileManager;
+import net.mcreator.workspace.elements.FolderElement;
+import net.mcreator.workspace.elements.ModElement;
+import net.mcreator.workspace.elements.SoundElement;
+import net.mcreator.workspace.elements.VariableElement;
+import net.mcreator.workspace.settings.WorkspaceSettings;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Read-only model of the workspace file sections that are diffed during sync. Unlike a virtual
+ * {@link net.mcreator.workspace.Workspace}, it has no generator and its elements are not reinitialized, so it is
+ * cheap to create for base and remote workspace files.
+ * <p>
+ * Elements of a snapshot are not bound to any workspace. They need to be reinitialized before they are used
+ * for anything else than comparison.
+ */
+public class WorkspaceSnapshot {
+
+	private static final Type MOD_ELEMENTS_TYPE = new TypeToken<List<ModElement>>() {}.getType();
+	private static final Type VARIABLE_ELEMENTS_TYPE = new TypeToken<List<VariableElement>>() {}.getType();
+	private static final Type SOUND_ELEMENTS_TYPE = new TypeToken<List<SoundElement>>() {}.getType();
+
+	private static final Set<String> MODELED_SECTIONS = Set.of("mcreatorVersion", "workspaceSettings", "mod_elements",
+			"variable_elements", "sound_elements", "language_map", "foldersRoot");
+
+	private final long mcreatorVersion;
+	@Nullable private final WorkspaceSettings workspaceSettings;
+	private final List<ModElement> modElements;
+	private final List<VariableElement> variableElements;
+	private final List<SoundElement> soundElements;
+	private final Map<String, LinkedHashMap<String, String>> languageMap;
+	private final FolderElement foldersRoot;
+	private final Map<String, JsonElement> otherSections = new HashMap<>();
+
+	private WorkspaceSnapshot(JsonObject workspace) {
+		JsonElement version = workspace.get("mcreatorVersion");
+		this.mcreatorVersion = version != null ? version.getAsLong() : 0;
+		this.workspaceSettings = parseSection(workspace, "workspaceSettings", WorkspaceSettings.class, null);
+		this.modElements = parseSection(workspace, "mod_elements", MOD_ELEMENTS_TYPE, new ArrayList<>());
+		this.variableElements = parseSection(workspace, "variable_elements", VARIABLE_ELEMENTS_TYPE,
+				new ArrayList<>());
+		this.soundElements = parseSection(workspace, "sound_elements", SOUND_ELEMENTS_TYPE, new ArrayList<>());
+		this.languageMap = parseLanguageMap(workspace.get("language_map"));
+		// fallback root is a new folder, the shared root of MCreator must not be modified by sync
+		this.foldersRoot = parseSection(workspace, "foldersRoot", FolderElement.class,
+				new FolderElement(FolderElement.ROOT.getName(), null));
+
+		// parent links of folders are not stored, but folders are compared by their full path
+		this.foldersRoot.updateStructure();
+
+		// sections without a model (e.g. tags) are kept as JSON trees, so sync can still merge them
+		for (Map.Entry<String, JsonElement> section : workspace.entrySet()) {
+			if (!MODELED_SECTIONS.contains(section.getKey()))
+				otherSections.put(section.getKey(), section.getValue());
+		}
+	}
+
+	/**
+	 * Parses the sections of the workspace file contents that are used by sync
+	 *
+	 * @param workspaceString Contents of the workspace file
+	 * @return Snapshot of the workspace file
+	 * @throws IOException if the workspace file could not be parsed
+	 */
+	public static WorkspaceSnapshot fromJson(String workspaceString) throws IOException {
+		try {
+			JsonElement workspace = JsonParser.parseString(workspaceString);
+			if (!workspace.isJsonObject())
+				throw new IOException("Failed to parse workspace string");
+			return fromJson(workspace.getAsJsonObject());
+		} catch (JsonParseException | IllegalStateException e) {
+			throw new IOException("Failed to parse workspace string", e);
+		}
+	}
+
+	/**
+	 * Parses the sections of the workspace JSON tree that are used by sync. The tree is not modified, so it can be
+	 * parsed again later.
+	 *
+	 * @param workspace JSON tree of the workspace file
+	 * @return Snapshot of the workspace file
+	 * @throws IOException if the workspace could not be parsed
+	 */
+	public static WorkspaceSnapshot fromJson(JsonObject workspace) throws IOException {
+		try {
+			return new WorkspaceSnapshot(workspace);
+		} catch (JsonParseException | IllegalStateException e) {
+			throw new IOException("Failed to parse workspace", e);
+		}
+	}
+
+	private static <T> T parseSection(JsonObject workspace, String section, Type type, T fallback) {
+		JsonElement sectionJson = workspace.get(section);
+		if (sectionJson == null || sectionJson.isJsonNull())
+			return fallback;
+		T parsed = WorkspaceFileManager.gson.fromJson(sectionJson, type);
+		return parsed != null ? parsed : fallback;
+	}
+
+	/**
+	 * Parses the language map with interned keys. Keys are mostly the same in all languages and all snapshots, so
+	 * each of them is stored once and keys of different maps can be compared by reference.
+	 */
+	private static Map<String, LinkedHashMap<String, String>> parseLanguageMap(@Nullable JsonElement languageMapJson) {
+		Map<String, LinkedHashMap<String, String>> languageMap = new HashMap<>();
+		if (languageMapJson == null || !languageMapJson.isJsonObject())
+			return languageMap;
+
+		for (Map.Entry<String, JsonElement> language : languageMapJson.getAsJsonObject().entrySet()) {
+			if (!language.getValue().isJsonObject())
+				continue;
+
+			LinkedHashMap<String, String> translations = new LinkedHashMap<>();
+			for (Map.Entry<String, JsonElement> entry : language.getValue().getAsJsonObject().entrySet()) {
+				if (!entry.getValue().isJsonNull())
+					translations.put(entry.getKey().intern(), entry.getValue().getAsString());
+			}
+			languageMap.put(language.getKey().intern(), translations);
+		}
+		return languageMap;
+	}
+
+	public long getMCreatorVersion() {
+		return mcreatorVersion;
+	}
+
+	@Nullable public WorkspaceSettings getWorkspaceSettings() {
+		return workspaceSettings;
+	}
+
+	public Collection<ModElement> getModElements() {
+		return Collections.unmodifiableList(modElements);
+	}
+
+	public Collection<VariableElement> getVariableElements() {
+		return Collections.unmodifiableList(variableElements);
+	}
+
+	public Collection<SoundElement> getSoundElements() {
+		return Collections.unmodifiableList(soundElements);
+	}
+
+	public Map<String, LinkedHashMap<String, String>> getLanguageMap() {
+		return Collections.unmodifiableMap(languageMap);
+	}
+
+	public FolderElement getFoldersRoot() {
+		return foldersRoot;
+	}
+
+	/**
+	 * @return JSON trees of the workspace file sections that are not modeled by this snapshot, by their names
+	 */
+	public Map<String, JsonElement> getOtherSections() {
+		return Collections.unmodifiableMap(otherSections);
+	}
+
+}
@@ -0,0 +1,213 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import net.mcreator.vcs.util.diff.ResultSide;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.lib.ObjectId;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of parsed workspace files, keyed by the blob ID of the workspace file. Blob IDs are content addresses,
+ * so cached entries never need to be invalidated because of changes of the workspace file.
+ * <p>
+ * Snapshots are kept in memory only. Per-section digests, used to predict if workspace files can be merged
+ * silently, are also kept on disk for base and remote workspace files, so they survive restarts and do not need the
+ * workspace file to be parsed again. Local workspace files are a new blob with each commit, so their digests are
+ * kept in memory only. The on-disk tier keeps the most recently used digests and drops digests unused for a while.
+ */
+public class WorkspaceSnapshotCache {
+
+	private static final Logger LOG = LogManager.getLogger("VCS snapshot cache");
+
+	private static final int MAX_SNAPSHOTS = 8;
+	private static final int MAX_SECTION_DIGESTS = 64;
+	private static final int MAX_DISK_SECTION_DIGESTS = 32;
+	private static final long DISK_SECTION_DIGESTS_EXPIRY = TimeUnit.DAYS.toMillis(30);
+
+	private static final Map<ObjectId, WorkspaceSnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override protected boolean removeEldestEntry(Map.Entry<ObjectId, WorkspaceSnapshot> eldest) {
+			return size() > MAX_SNAPSHOTS;
+		}
+	};
+
+	private static final Map<ObjectId, Map<String, String>> sectionDigests = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override protected boolean removeEldestEntry(Map.Entry<ObjectId, Map<String, String>> eldest) {
+			return size() > MAX_SECTION_DIGESTS;
+		}
+	};
+
+	/**
+	 * @param workspaceFileHandle Sync handle of the workspace file
+	 * @param resultSide          Side of the workspace file
+	 * @return Snapshot of the workspace file on the given side, or null if the file does not exist on that side
+	 * @throws IOException if the workspace file could not be loaded or parsed
+	 */
+	@Nullable public static WorkspaceSnapshot getSnapshot(FileSyncHandle workspaceFileHandle, ResultSide resultSide)
+			throws IOException {
+		ObjectId id = workspaceFileHandle.getId(resultSide);
+		if (id == null)
+			return null;
+
+		synchronized (snapshots) {
+			WorkspaceSnapshot cached = snapshots.get(id);
+			if (cached != null)
+				return cached;
+		}
+
+		// parsed outside the lock, so different blobs can be parsed concurrently
+		WorkspaceSnapshot snapshot = WorkspaceSnapshot.fromJson(
+				new String(workspaceFileHandle.getBytes(resultSide), StandardCharsets.UTF_8));
+		synchronized (snapshots) {
+			WorkspaceSnapshot cached = snapshots.putIfAbsent(id.copy(), snapshot);
+			return cached != null ? cached : snapshot;
+		}
+	}
+
+	/**
+	 * Removes the snapshot from the cache. Needs to be called once elements of the snapshot get bound to a workspace,
+	 * as they are not read-only anymore from that point.
+	 *
+	 * @param id Blob ID of the workspace file, nothing is done if null
+	 */
+	public static void invalidate(@Nullable ObjectId id) {
+		if (id == null)
+			return;
+
+		synchronized (snapshots) {
+			snapshots.remove(id);
+		}
+	}
+
+	/**
+	 * Returns digests of top-level sections of the workspace file. Two sides have the same section contents if the
+	 * digests of the section match.
+	 *
+	 * @param workspaceFileHandle Sync handle of the workspace file
+	 * @param resultSide          Side of the workspace file
+	 * @param diskCacheDir        Directory of the on-disk cache tier, on-disk tier is not used if null, digests of
+	 *                            the local side are read from but never stored to it
+	 * @return Digest of each section, empty map if the file does not exist on the given side
+	 * @throws IOException if the workspace file could not be loaded or parsed
+	 */
+	public static Map<String, String> getSectionDigests(FileSyncHandle workspaceFileHandle, ResultSide resultSide,
+			@Nullable File diskCacheDir) throws IOException {
+		ObjectId id = workspaceFileHandle.getId(resultSide);
+		if (id == null)
+			return Collections.emptyMap();
+
+		synchronized (sectionDigests) {
+			Map<String, String> cached = sectionDigests.get(id);
+			if (cached != null)
+				return cached;
+		}
+
+		File diskCacheFile = diskCacheDir != null ? new File(diskCacheDir, id.getName()) : null;
+		Map<String, String> digests = diskCacheFile != null ? readDigests(diskCacheFile) : null;
+		if (digests == null) {
+			try (InputStream workspaceFile = workspaceFileHandle.openStream(resultSide)) {
+				digests = computeDigests(Objects.requireNonNull(workspaceFile));
+			}
+			if (diskCacheFile != null && resultSide != ResultSide.LOCAL) {
+				writeDigests(diskCacheFile, digests);
+				CacheDirPruner.prune(diskCacheDir, MAX_DISK_SECTION_DIGESTS, DISK_SECTION_DIGESTS_EXPIRY);
+			}
+		}
+
+		synchronized (sectionDigests) {
+			sectionDigests.put(id.copy(), digests);
+		}
+		return digests;
+	}
+
+	private static Map<String, String> computeDigests(InputStream workspaceFile) throws IOException {
+		MessageDigest messageDigest;
+		try {
+			messageDigest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+
+		Map<String, String> digests = new LinkedHashMap<>();
+		JsonReader reader = new JsonReader(new InputStreamReader(workspaceFile, StandardCharsets.UTF_8));
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String section = reader.nextName();
+			// sections are parsed one at a time, so the whole workspace tree is never in memory at once
+			JsonElement sectionJson = JsonParser.parseReader(reader);
+			byte[] digest = messageDigest.digest(sectionJson.toString().getBytes(StandardCharsets.UTF_8));
+			digests.put(section, HexFormat.of().formatHex(digest));
+		}
+		return Collections.unmodifiableMap(digests);
+	}
+
+	@Nullable private static Map<String, String> readDigests(File diskCacheFile) {
+		if (!diskCacheFile.isFile())
+			return null;
+
+		try {
+			Map<String, String> digests = new LinkedHashMap<>();
+			for (String line : Files.readAllLines(diskCacheFile.toPath(), StandardCharsets.UTF_8)) {
+				int separator = line.lastIndexOf('\t');
+				if (separator != -1)
+					digests.put(line.substring(0, separator), line.substring(separator + 1));
+			}
+			CacheDirPruner.touch(diskCacheFile);
+			return Collections.unmodifiableMap(digests);
+		} catch (IOException e) {
+			LOG.warn("Failed to read cached section digests from " + diskCacheFile, e);
+			return null;
+		}
+	}
+
+	private static void writeDigests(File diskCacheFile, Map<String, String> digests) {
+		try {
+			Files.createDirectories(diskCacheFile.getParentFile().toPath());
+			StringBuilder contents = new StringBuilder();
+			digests.forEach((section, digest) -> contents.append(section).append('\t').append(digest).append('\n'));
+
+			// written to a temporary file first, so a partially written cache file is never read
+			Path tmpFile = Files.createTempFile(diskCacheFile.getParentFile().toPath(),
+					diskCacheFile.getName(), ".tmp");
+			Files.writeString(tmpFile, contents, StandardCharsets.UTF_8);
+			Files.move(tmpFile, diskCacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.warn("Failed to store section digests to " + diskCacheFile, e);
+		}
+	}
+
+}
@@ -1,37 +0,0 @@
-/*
- * MCreator VCS plugin
- * Copyright (C) 2020 Pylo and contributors
- * Copyright (C) 2023, Defeatomizer
- *
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- *
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- *
- * You should have received a copy of the GNU General Public License
- * along with this program.  If not, see <https://www.gnu.org/licenses/>.
- */
-
-package net.mcreator.vcs.util.diff;
-
-import org.eclipse.jgit.diff.DiffEntry;
-
-record AffectedObjectWithType<T>(T affected, DiffEntry.ChangeType changeType) {
-
-	@Override public boolean equals(Object o) {
-		return o instanceof AffectedObjectWithType && ((AffectedObjectWithType<?>) o).affected.equals(affected);
-	}
-
-	@Override public int hashCode() {
-		return affected.hashCode();
-	}
-
-	@Override public String toString() {
-		return affected.toString();
-	}
-}
@@ -0,0 +1,90 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util.diff;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural three-way merge of JSON trees. Objects are merged member by member, so edits of different fields on
+ * both sides are combined. Arrays and primitives are merged as a whole, as positions in arrays do not identify their
+ * items reliably.
+ */
+public final class JsonThreeWayMerge {
+
+	private JsonThreeWayMerge() {
+	}
+
+	/**
+	 * Merges the trees. Members missing in a tree are treated as removed, so a member removed on one side and not
+	 * changed on the other side is removed from the result.
+	 *
+	 * @param base   Common ancestor of both trees
+	 * @param local  Local tree
+	 * @param remote Remote tree
+	 * @return Merged tree, or null if any field was changed differently on both sides
+	 */
+	@Nullable public static JsonElement merge(JsonElement base, JsonElement local, JsonElement remote) {
+		Result result = mergeValue(base, local, remote);
+		return result.conflicting() ? null : result.value();
+	}
+
+	private static Result mergeValue(@Nullable JsonElement base, @Nullable JsonElement local,
+			@Nullable JsonElement remote) {
+		if (Objects.equals(local, remote) || Objects.equals(base, remote))
+			return new Result(local, false);
+		else if (Objects.equals(base, local))
+			return new Result(remote, false);
+
+		// both sides changed the value differently, only objects present on all sides can be merged further
+		if (base instanceof JsonObject baseObject && local instanceof JsonObject localObject
+				&& remote instanceof JsonObject remoteObject)
+			return mergeObject(baseObject, localObject, remoteObject);
+
+		return new Result(null, true);
+	}
+
+	private static Result mergeObject(JsonObject base, JsonObject local, JsonObject remote) {
+		// local order of members is kept, members added on remote follow them
+		Set<String> members = new LinkedHashSet<>(local.keySet());
+		members.addAll(remote.keySet());
+
+		JsonObject merged = new JsonObject();
+		for (String member : members) {
+			Result result = mergeValue(base.get(member), local.get(member), remote.get(member));
+			if (result.conflicting())
+				return result;
+			else if (result.value() != null)
+				merged.add(member, result.value());
+		}
+		return new Result(merged, false);
+	}
+
+	/**
+	 * @param value       Merged value, null if the value is removed
+	 * @param conflicting True, if the value was changed differently on both sides
+	 */
+	private record Result(@Nullable JsonElement value, boolean conflicting) {}
+
+}
@@ -0,0 +1,171 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util.diff;
+
+import org.eclipse.jgit.diff.DiffEntry;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Key-level three-way merge of workspace language maps. All languages are merged in a single pass over their keys,
+ * and only keys changed by remote are recorded, so the result only holds the changes instead of copies of the maps.
+ * <p>
+ * Keys of languages present on both sides are merged one by one. A language gets a conflict only if one of its keys
+ * was changed differently on both sides, or if it was removed on one side and changed on the other.
+ */
+public final class LanguageMapMerge {
+
+	private final Map<String, Map<String, String>> remoteEdits;
+	private final Map<String, LinkedHashMap<String, String>> addedLanguages;
+	private final Set<String> removedLanguages;
+	private final MergeHandleIndex<String> conflicts;
+
+	private LanguageMapMerge(Map<String, Map<String, String>> remoteEdits,
+			Map<String, LinkedHashMap<String, String>> addedLanguages, Set<String> removedLanguages,
+			MergeHandleIndex<String> conflicts) {
+		this.remoteEdits = remoteEdits;
+		this.addedLanguages = addedLanguages;
+		this.removedLanguages = removedLanguages;
+		this.conflicts = conflicts;
+	}
+
+	/**
+	 * Merges language maps, null maps are treated as empty.
+	 */
+	public static LanguageMapMerge of(@Nullable Map<String, ? extends Map<String, String>> base,
+			@Nullable Map<String, ? extends Map<String, String>> local,
+			@Nullable Map<String, ? extends Map<String, String>> remote) {
+		Map<String, ? extends Map<String, String>> baseMap = Objects.requireNonNullElse(base, Collections.emptyMap());
+		Map<String, ? extends Map<String, String>> localMap = Objects.requireNonNullElse(local,
+				Collections.emptyMap());
+		Map<String, ? extends Map<String, String>> remoteMap = Objects.requireNonNullElse(remote,
+				Collections.emptyMap());
+
+		Map<String, Map<String, String>> remoteEdits = new LinkedHashMap<>();
+		Map<String, LinkedHashMap<String, String>> addedLanguages = new LinkedHashMap<>();
+		Set<String> removedLanguages = new LinkedHashSet<>();
+		MergeHandleIndex<String> conflicts = new MergeHandleIndex<>();
+
+		Set<String> languages = new LinkedHashSet<>(localMap.keySet());
+		languages.addAll(remoteMap.keySet());
+		for (String language : languages) {
+			Map<String, String> baseLanguage = baseMap.get(language);
+			Map<String, String> localLanguage = localMap.get(language);
+			Map<String, String> remoteLanguage = remoteMap.get(language);
+
+			if (localLanguage != null && remoteLanguage != null) {
+				// languages added on both sides are merged against an empty base
+				Map<String, String> edits = new LinkedHashMap<>();
+				boolean conflicting = mergeKeys(Objects.requireNonNullElse(baseLanguage, Collections.emptyMap()),
+						localLanguage, remoteLanguage, edits);
+				if (!edits.isEmpty())
+					remoteEdits.put(language, edits);
+				if (conflicting) {
+					DiffEntry.ChangeType changeType =
+							baseLanguage != null ? DiffEntry.ChangeType.MODIFY : DiffEntry.ChangeType.ADD;
+					conflicts.add(new MergeHandle<>(language, language, changeType, changeType));
+				}
+			} else if (localLanguage != null) { // remote removed the language or it was added locally
+				if (baseLanguage != null && baseLanguage.equals(localLanguage))
+					removedLanguages.add(language);
+				else if (baseLanguage != null)
+					conflicts.add(new MergeHandle<>(language, language, DiffEntry.ChangeType.MODIFY,
+							DiffEntry.ChangeType.DELETE));
+			} else { // local removed the language or it was added on remote
+				if (baseLanguage == null)
+					addedLanguages.put(language, new LinkedHashMap<>(remoteLanguage));
+				else if (!baseLanguage.equals(remoteLanguage))
+					conflicts.add(new MergeHandle<>(language, language, DiffEntry.ChangeType.DELETE,
+							DiffEntry.ChangeType.MODIFY));
+			}
+		}
+
+		return new LanguageMapMerge(remoteEdits, addedLanguages, removedLanguages, conflicts);
+	}
+
+	/**
+	 * Walks keys of local and remote once. Keys removed on both sides are not present in either of them, so keys of
+	 * the base are only looked up and never iterated.
+	 *
+	 * @param edits Filled with remote changes of keys that do not conflict, null values mark removed keys
+	 * @return true if any key was changed differently on both sides
+	 */
+	private static boolean mergeKeys(Map<String, String> base, Map<String, String> local, Map<String, String> remote,
+			Map<String, String> edits) {
+		boolean conflicting = false;
+		for (Map.Entry<String, String> localEntry : local.entrySet()) {
+			String key = localEntry.getKey();
+			String localValue = localEntry.getValue();
+			String remoteValue = remote.get(key);
+			String baseValue = base.get(key);
+			if (Objects.equals(localValue, remoteValue) || Objects.equals(baseValue, remoteValue))
+				continue; // same on both sides or changed only locally
+
+			if (Objects.equals(baseValue, localValue))
+				edits.put(key, remoteValue);
+			else
+				conflicting = true;
+		}
+
+		for (Map.Entry<String, String> remoteEntry : remote.entrySet()) {
+			String key = remoteEntry.getKey();
+			if (local.containsKey(key))
+				continue; // already merged above
+
+			String baseValue = base.get(key);
+			if (baseValue == null)
+				edits.put(key, remoteEntry.getValue());
+			else if (!baseValue.equals(remoteEntry.getValue()))
+				conflicting = true; // removed locally, changed on remote
+		}
+		return conflicting;
+	}
+
+	/**
+	 * Applies remote changes that do not conflict to the local language map. Keys of conflicting languages that were
+	 * only changed on remote are applied too.
+	 *
+	 * @param languageMap Local language map to apply the changes to
+	 */
+	public void apply(Map<String, LinkedHashMap<String, String>> languageMap) {
+		removedLanguages.forEach(languageMap::remove);
+		addedLanguages.forEach(languageMap::put);
+		remoteEdits.forEach((language, edits) -> {
+			LinkedHashMap<String, String> translations = languageMap.get(language);
+			if (translations == null)
+				return;
+
+			edits.forEach((key, value) -> {
+				if (value == null)
+					translations.remove(key);
+				else
+					translations.put(key, value);
+			});
+		});
+	}
+
+	/**
+	 * @return Languages that need to be merged by the user
+	 */
+	public MergeHandleIndex<String> conflicts() {
+		return conflicts;
+	}
+
+}
@@ -21,8 +21,6 @@ package net.mcreator.vcs.util.diff;
 
 import org.eclipse.jgit.diff.DiffEntry;
 
-import java.util.Collection;
-
 public class MergeHandle<T> {
 
 	private final T local;
@@ -84,11 +82,4 @@ public class MergeHandle<T> {
 		return local + "[" + localChange.name() + "] : " + remote + "[" + remoteChange.name() + "]";
 	}
 
-	public static <T> boolean isElementNotInMergeHandleCollection(Collection<MergeHandle<T>> collection, T element) {
-		for (MergeHandle<T> mergeHandle : collection)
-			if (mergeHandle.getLocal().equals(element) || mergeHandle.getRemote().equals(element))
-				return false;
-		return true;
-	}
-
 }
@@ -0,0 +1,114 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util.diff;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Set of merge handles that also indexes the handles by their local and remote elements, so checking whether an
+ * element is affected by any of the handles does not need to scan the whole set.
+ *
+ * @param <T> Type of the merged element, equals of T should compare by key, not by content
+ */
+public class MergeHandleIndex<T> extends AbstractSet<MergeHandle<T>> {
+
+	private final Set<MergeHandle<T>> handles = new LinkedHashSet<>();
+	private final Map<T, Integer> elementReferences = new HashMap<>();
+
+	public MergeHandleIndex() {
+	}
+
+	public MergeHandleIndex(Collection<MergeHandle<T>> handles) {
+		addAll(handles);
+	}
+
+	/**
+	 * @param element Element to check
+	 * @return true if the element is the local or the remote element of any handle in this set
+	 */
+	public boolean containsElement(T element) {
+		return elementReferences.containsKey(element);
+	}
+
+	@Override public boolean add(MergeHandle<T> handle) {
+		if (!handles.add(handle))
+			return false;
+
+		reference(handle.getLocal());
+		reference(handle.getRemote());
+		return true;
+	}
+
+	@SuppressWarnings("unchecked") @Override public boolean remove(Object o) {
+		if (!handles.remove(o))
+			return false;
+
+		MergeHandle<T> handle = (MergeHandle<T>) o;
+		release(handle.getLocal());
+		release(handle.getRemote());
+		return true;
+	}
+
+	@Override public boolean contains(Object o) {
+		return handles.contains(o);
+	}
+
+	@Override public void clear() {
+		handles.clear();
+		elementReferences.clear();
+	}
+
+	@Override public int size() {
+		return handles.size();
+	}
+
+	@Nonnull @Override public Iterator<MergeHandle<T>> iterator() {
+		Iterator<MergeHandle<T>> iterator = handles.iterator();
+		return new Iterator<>() {
+
+			private MergeHandle<T> current;
+
+			@Override public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override public MergeHandle<T> next() {
+				current = iterator.next();
+				return current;
+			}
+
+			@Override public void remove() {
+				iterator.remove();
+				release(current.getLocal());
+				release(current.getRemote());
+			}
+
+		};
+	}
+
+	private void reference(T element) {
+		elementReferences.merge(element, 1, Integer::sum);
+	}
+
+	private void release(T element) {
+		elementReferences.computeIfPresent(element, (key, count) -> count > 1 ? count - 1 : null);
+	}
+
+}
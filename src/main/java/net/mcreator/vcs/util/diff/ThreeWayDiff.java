@@ -0,0 +1,143 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.util.diff;
+
+import net.mcreator.util.diff.GSONCompare;
+import org.eclipse.jgit.diff.DiffEntry;
+
+import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Three-way diff of base, local and remote versions of a collection. Each version is indexed by equals/hashCode of
+ * its elements, so changes of both sides and conflicts between them are found in a single linear pass.
+ *
+ * @param <T> Type of the element
+ */
+public final class ThreeWayDiff<T> {
+
+	private final Changes<T> localToBase;
+	private final Changes<T> remoteToBase;
+	private final MergeHandleIndex<T> conflicts;
+
+	private ThreeWayDiff(Changes<T> localToBase, Changes<T> remoteToBase, MergeHandleIndex<T> conflicts) {
+		this.localToBase = localToBase;
+		this.remoteToBase = remoteToBase;
+		this.conflicts = conflicts;
+	}
+
+	/**
+	 * Diffs collections of elements. Elements are matched by equals/hashCode and compared by contents using GSON.
+	 */
+	public static <T> ThreeWayDiff<T> of(Collection<T> base, Collection<T> local, Collection<T> remote) {
+		BiPredicate<T, T> changed = (baseElement, sideElement) -> !GSONCompare.deepEquals(baseElement, sideElement);
+		return diff(index(base), index(local), index(remote), changed, changed);
+	}
+
+	private static <T> ThreeWayDiff<T> diff(Map<T, T> base, Map<T, T> local, Map<T, T> remote,
+			BiPredicate<T, T> localChanged, BiPredicate<T, T> remoteChanged) {
+		Changes<T> localToBase = changes(base, local, localChanged);
+		Changes<T> remoteToBase = changes(base, remote, remoteChanged);
+
+		// remote changes are indexed by key, so each local change is matched with a single lookup
+		Map<T, Affected<T>> remoteIndex = new HashMap<>();
+		remoteToBase.forEachAffected(affected -> remoteIndex.put(affected.element(), affected));
+
+		MergeHandleIndex<T> conflicts = new MergeHandleIndex<>();
+		localToBase.forEachAffected(localAffected -> {
+			Affected<T> remoteAffected = remoteIndex.get(localAffected.element());
+			if (remoteAffected == null)
+				return;
+
+			// if both actions are delete, this is actually not a conflict
+			if (localAffected.changeType() == DiffEntry.ChangeType.DELETE
+					&& remoteAffected.changeType() == DiffEntry.ChangeType.DELETE)
+				return;
+
+			conflicts.add(new MergeHandle<>(localAffected.element(), remoteAffected.element(),
+					localAffected.changeType(), remoteAffected.changeType()));
+		});
+
+		return new ThreeWayDiff<>(localToBase, remoteToBase, conflicts);
+	}
+
+	private static <T> Changes<T> changes(Map<T, T> base, Map<T, T> side, BiPredicate<T, T> changed) {
+		Set<T> added = new LinkedHashSet<>();
+		Set<T> removed = new LinkedHashSet<>();
+		Set<T> changedElements = new LinkedHashSet<>();
+
+		for (T sideElement : side.values()) {
+			T baseElement = base.get(sideElement);
+			if (baseElement == null)
+				added.add(sideElement);
+			else if (changed.test(baseElement, sideElement))
+				changedElements.add(sideElement);
+		}
+
+		for (T baseElement : base.values()) {
+			if (!side.containsKey(baseElement))
+				removed.add(baseElement);
+		}
+
+		return new Changes<>(added, removed, changedElements);
+	}
+
+	/**
+	 * @return Map of each element key to the element instance, the first instance is kept for duplicate keys
+	 */
+	private static <T> Map<T, T> index(Collection<T> elements) {
+		Map<T, T> index = new LinkedHashMap<>(elements.size() * 2);
+		for (T element : elements)
+			index.putIfAbsent(element, element);
+		return index;
+	}
+
+	public Changes<T> localToBase() {
+		return localToBase;
+	}
+
+	public Changes<T> remoteToBase() {
+		return remoteToBase;
+	}
+
+	/**
+	 * @return Merge handles of elements affected on both sides, elements deleted on both sides are not conflicts
+	 */
+	public MergeHandleIndex<T> conflicts() {
+		return conflicts;
+	}
+
+	/**
+	 * Changes of one side relative to base. Added and changed elements are the instances of the side, removed
+	 * elements are the instances of base.
+	 */
+	public record Changes<T>(Set<T> added, Set<T> removed, Set<T> changed) {
+
+		private void forEachAffected(Consumer<Affected<T>> consumer) {
+			changed.forEach(element -> consumer.accept(new Affected<>(element, DiffEntry.ChangeType.MODIFY)));
+			removed.forEach(element -> consumer.accept(new Affected<>(element, DiffEntry.ChangeType.DELETE)));
+			added.forEach(element -> consumer.accept(new Affected<>(element, DiffEntry.ChangeType.ADD)));
+		}
+
+	}
+
+	private record Affected<T>(T element, DiffEntry.ChangeType changeType) {}
+
+}
@@ -0,0 +1,461 @@
+/*
+ * MCreator VCS plugin
+ * Copyright (C) 2023-2025, Defeatomizer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.mcreator.vcs.workspace;
+
+import net.mcreator.workspace.Workspace;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.ignore.IgnoreNode;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks paths of the workspace that may differ from HEAD, so staging and status do not need to scan the whole
+ * working tree. Paths are reported by a {@link WatchService} over the workspace folder and by the plugin itself for
+ * the files it writes. Tracked paths are a superset of changed paths, as paths are only removed once committed.
+ * <p>
+ * Tracked paths are kept in a journal in the workspace cache dir, so they survive restarts. If MCreator was closed
+ * on the same HEAD, paths modified while it was not running are found by their modification time. Otherwise, tracked
+ * paths are unknown until the next full scan of the working tree. The same applies if HEAD is moved while MCreator
+ * is running, unless the plugin reports the move by marking the committed paths clean.
+ */
+public class DirtyPathTracker {
+
+	private static final Logger LOG = LogManager.getLogger("VCS dirty path tracker");
+
+	// modification times are compared with some tolerance, as file systems store them with different precision
+	private static final long MODIFICATION_TIME_TOLERANCE = 2000;
+
+	private static final String JOURNAL_HEAD = "head";
+	private static final String JOURNAL_UNKNOWN = "unknown";
+	private static final String JOURNAL_DIRTY = "dirty";
+	private static final String JOURNAL_CLOSED = "closed";
+
+	private final Git git;
+	private final Path workspaceRoot;
+	private final Path journalFile;
+	private final Set<Path> excludedFolders;
+	private final Path gitignoreFile;
+	// reloaded when the root .gitignore changes, for example by a pull
+	@Nullable private volatile IgnoreNode ignoreNode;
+
+	// sequence of the last change of each path, so paths changed after a snapshot survive its commit
+	private final Map<String, Long> dirtyPaths = new LinkedHashMap<>();
+	private long sequence;
+	private long unknownSince = -1;
+	// HEAD the journal was last written for, tracked paths only cover changes relative to it
+	@Nullable private String journalHead;
+	private boolean ready;
+	private boolean closed;
+
+	@Nullable private WatchService watchService;
+	private final Map<WatchKey, Path> watchedFolders = new ConcurrentHashMap<>();
+	private final Thread shutdownHook = new Thread(this::close, "VCS-DirtyPathTrackerShutdown");
+
+	public DirtyPathTracker(Workspace workspace, Git git) {
+		this.git = git;
+		this.workspaceRoot = workspace.getWorkspaceFolder().toPath().toAbsolutePath().normalize();
+		Path cacheDir = workspace.getFolderManager().getWorkspaceCacheDir().toPath().toAbsolutePath().normalize();
+		this.journalFile = cacheDir.resolve("vcsDirtyPaths");
+		this.excludedFolders = Set.of(workspaceRoot.resolve(Constants.DOT_GIT), cacheDir);
+		this.gitignoreFile = workspaceRoot.resolve(Constants.GITIGNORE_FILENAME);
+		this.ignoreNode = loadIgnoreNode(gitignoreFile);
+
+		long closedAt;
+		synchronized (this) {
+			closedAt = readJournal();
+			writeJournal(false); // marker of the clean close is dropped, so it is not trusted after a crash
+		}
+
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+		} catch (IOException e) {
+			LOG.warn("Failed to watch workspace folder, changed paths will not be tracked", e);
+			return;
+		}
+
+		Thread watcher = new Thread(() -> watch(closedAt), "VCS-DirtyPathTracker");
+		watcher.setDaemon(true);
+		watcher.setPriority(Thread.MIN_PRIORITY);
+		watcher.start();
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Takes a snapshot of tracked paths. Events already reported by the watch service are processed first, so paths
+	 * changed right before this call are included.
+	 *
+	 * @return Snapshot of the tracked paths
+	 */
+	public Snapshot snapshot() {
+		drainEvents();
+		String head = getHead();
+		synchronized (this) {
+			// HEAD was moved by something else than the plugin, e.g. another git client, so paths changed between
+			// both commits are not tracked
+			if (!Objects.equals(head, journalHead))
+				markUnknown();
+			if (!ready || unknownSince >= 0)
+				return new Snapshot(sequence, null);
+			return new Snapshot(sequence, Set.copyOf(dirtyPaths.keySet()));
+		}
+	}
+
+	/**
+	 * Reports paths written or deleted by the plugin, so they are tracked without waiting for the watch service.
+	 *
+	 * @param paths Workspace-relative VCS paths of files or folders, using forward slashes
+	 */
+	public synchronized void markDirty(Collection<String> paths) {
+		if (closed)
+			return;
+
+		sequence++;
+		for (String path : paths) {
+			if (dirtyPaths.put(path, sequence) == null)
+				appendJournal(path);
+		}
+	}
+
+	/**
+	 * Marks tracked paths as unknown, until the working tree is fully scanned again.
+	 */
+	public synchronized void markUnknown() {
+		if (closed || unknownSince >= 0)
+			return;
+
+		unknownSince = ++sequence;
+		writeJournal(false);
+	}
+
+	/**
+	 * Needs to be called once all paths of the snapshot are committed. If the snapshot was unknown and the whole
+	 * working tree was committed, tracked paths are known again.
+	 *
+	 * @param snapshot Snapshot taken before the paths were staged
+	 */
+	public synchronized void markClean(Snapshot snapshot) {
+		markKnown(snapshot, Collections.emptyList());
+	}
+
+	/**
+	 * Replaces paths of the snapshot with the paths that differ from HEAD according to a full scan of the working
+	 * tree, which makes tracked paths known again.
+	 *
+	 * @param snapshot         Snapshot taken before the working tree was scanned
+	 * @param uncommittedPaths Paths that differ from HEAD, according to the scan
+	 */
+	public synchronized void markKnown(Snapshot snapshot, Collection<String> uncommittedPaths) {
+		if (closed)
+			return;
+
+		dirtyPaths.values().removeIf(pathSequence -> pathSequence <= snapshot.sequence());
+		for (String path : uncommittedPaths)
+			dirtyPaths.putIfAbsent(path, snapshot.sequence());
+		if (unknownSince >= 0 && unknownSince <= snapshot.sequence())
+			unknownSince = -1;
+		writeJournal(false);
+	}
+
+	/**
+	 * Stops watching the workspace folder and marks the journal as closed cleanly.
+	 */
+	public void close() {
+		synchronized (this) {
+			if (closed)
+				return;
+			writeJournal(true);
+			closed = true;
+		}
+
+		try {
+			if (watchService != null)
+				watchService.close();
+		} catch (IOException e) {
+			LOG.warn("Failed to stop watching workspace folder", e);
+		}
+
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException ignored) { // already shutting down
+		}
+	}
+
+	private void watch(long modifiedSince) {
+		try {
+			registerAll(workspaceRoot, modifiedSince);
+			synchronized (this) {
+				ready = true;
+				writeJournal(false);
+			}
+
+			while (true)
+				process(Objects.requireNonNull(watchService).take());
+		} catch (ClosedWatchServiceException | InterruptedException ignored) { // tracker was closed
+		} catch (IOException e) {
+			LOG.warn("Failed to watch workspace folder, changed paths will not be tracked", e);
+			markUnknown();
+		}
+	}
+
+	private void drainEvents() {
+		if (watchService == null)
+			return;
+
+		try {
+			WatchKey key;
+			while ((key = watchService.poll()) != null)
+				process(key);
+		} catch (ClosedWatchServiceException ignored) {
+		}
+	}
+
+	private void process(WatchKey key) {
+		Path folder = watchedFolders.get(key);
+		if (folder == null) {
+			key.cancel();
+			return;
+		}
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				markUnknown();
+				continue;
+			}
+
+			Path path = folder.resolve((Path) event.context());
+			if (path.equals(gitignoreFile))
+				reloadIgnoreNode();
+
+			boolean directory = Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS);
+			if (excludedFolders.contains(path) || isIgnored(path, directory))
+				continue;
+
+			// files created in a new folder before it is registered are covered by the folder path itself
+			if (directory && event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+				try {
+					registerAll(path, -1);
+				} catch (IOException e) {
+					LOG.warn("Failed to watch folder " + path, e);
+					markUnknown();
+				}
+			}
+			markDirty(List.of(toVCSPath(path)));
+		}
+
+		if (!key.reset())
+			watchedFolders.remove(key);
+	}
+
+	/**
+	 * Registers the folder and its subfolders to the watch service.
+	 *
+	 * @param modifiedSince Time the workspace was last watched, files and folders modified since then are tracked,
+	 *                      nothing is tracked if negative
+	 */
+	private void registerAll(Path start, long modifiedSince) throws IOException {
+		long threshold = modifiedSince - MODIFICATION_TIME_TOLERANCE;
+		Files.walkFileTree(start, new SimpleFileVisitor<>() {
+			@Override public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+					throws IOException {
+				if (excludedFolders.contains(dir) || (!dir.equals(workspaceRoot) && isIgnored(dir, true)))
+					return FileVisitResult.SKIP_SUBTREE;
+
+				watchedFolders.put(dir.register(Objects.requireNonNull(watchService),
+						StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+						StandardWatchEventKinds.ENTRY_MODIFY), dir);
+
+				// modified folders may have had entries removed, which can only be staged through the folder
+				if (modifiedSince >= 0 && attrs.lastModifiedTime().toMillis() > threshold) {
+					if (dir.equals(workspaceRoot))
+						markDirty(getMissingRootEntries());
+					else
+						markDirty(List.of(toVCSPath(dir)));
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (modifiedSince >= 0 && attrs.lastModifiedTime().toMillis() > threshold && !isIgnored(file,
+						false))
+					markDirty(List.of(toVCSPath(file)));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override public FileVisitResult visitFileFailed(Path file, IOException e) {
+				return FileVisitResult.CONTINUE; // removed while walked, reported by the watch service instead
+			}
+		});
+	}
+
+	/**
+	 * The workspace folder itself can not be staged as a whole, so its entries removed from the working tree are
+	 * found from the index instead.
+	 *
+	 * @return Entries of the workspace folder that are in the index, but missing in the working tree
+	 */
+	private Set<String> getMissingRootEntries() throws IOException {
+		DirCache index = git.getRepository().readDirCache();
+		Set<String> rootEntries = new HashSet<>();
+		for (int i = 0; i < index.getEntryCount(); i++) {
+			String path = index.getEntry(i).getPathString();
+			int separator = path.indexOf('/');
+			rootEntries.add(separator != -1 ? path.substring(0, separator) : path);
+		}
+		rootEntries.removeIf(entry -> Files.exists(workspaceRoot.resolve(entry), LinkOption.NOFOLLOW_LINKS));
+		return rootEntries;
+	}
+
+	/**
+	 * Reloads ignore rules of the workspace. Folders that are no longer ignored are watched from now on, changes made
+	 * to paths while they were ignored were not tracked, so tracked paths are unknown until the next full scan.
+	 */
+	private void reloadIgnoreNode() {
+		ignoreNode = loadIgnoreNode(gitignoreFile);
+		try {
+			registerAll(workspaceRoot, -1);
+		} catch (IOException e) {
+			LOG.warn("Failed to watch workspace folder after its ignore rules changed", e);
+		}
+		markUnknown();
+	}
+
+	private boolean isIgnored(Path path, boolean directory) {
+		IgnoreNode ignoreNode = this.ignoreNode;
+		return ignoreNode != null && ignoreNode.isIgnored(toVCSPath(path), directory) == IgnoreNode.MatchResult.IGNORED;
+	}
+
+	private String toVCSPath(Path path) {
+		return workspaceRoot.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * Reads the journal. Tracked paths are unknown if there is no journal, if MCreator was not closed cleanly or if
+	 * HEAD changed since then.
+	 *
+	 * @return Time MCreator was closed at, or -1 if the journal can not be trusted
+	 */
+	private long readJournal() {
+		long closedAt = -1;
+		boolean unknown = true;
+		if (Files.isRegularFile(journalFile)) {
+			try {
+				String head = null;
+				unknown = false;
+				for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+					int separator = line.indexOf('\t');
+					String key = separator != -1 ? line.substring(0, separator) : line;
+					String value = separator != -1 ? line.substring(separator + 1) : "";
+					switch (key) {
+					case JOURNAL_HEAD -> head = value;
+					case JOURNAL_UNKNOWN -> unknown = true;
+					case JOURNAL_DIRTY -> dirtyPaths.put(value, sequence);
+					case JOURNAL_CLOSED -> closedAt = Long.parseLong(value);
+					}
+				}
+				if (!Objects.equals(head, getHead()))
+					unknown = true;
+			} catch (IOException | NumberFormatException e) {
+				LOG.warn("Failed to read dirty path journal from " + journalFile, e);
+				unknown = true;
+			}
+		}
+
+		if (unknown || closedAt < 0) {
+			unknownSince = sequence;
+			return -1;
+		}
+		return closedAt;
+	}
+
+	private void writeJournal(boolean closing) {
+		journalHead = getHead();
+		StringBuilder contents = new StringBuilder();
+		contents.append(JOURNAL_HEAD).append('\t').append(Objects.requireNonNullElse(journalHead, "")).append('\n');
+		// paths can not be trusted after a restart if changes were not tracked until now
+		if (unknownSince >= 0 || !ready)
+			contents.append(JOURNAL_UNKNOWN).append('\n');
+		for (String path : dirtyPaths.keySet())
+			contents.append(JOURNAL_DIRTY).append('\t').append(path).append('\n');
+		if (closing)
+			contents.append(JOURNAL_CLOSED).append('\t').append(System.currentTimeMillis()).append('\n');
+
+		try {
+			Files.createDirectories(journalFile.getParent());
+			// written to a temporary file first, so a partially written journal is never read
+			Path tmpFile = Files.createTempFile(journalFile.getParent(), journalFile.getFileName().toString(),
+					".tmp");
+			Files.writeString(tmpFile, contents, StandardCharsets.UTF_8);
+			Files.move(tmpFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.warn("Failed to store dirty path journal to " + journalFile, e);
+		}
+	}
+
+	private void appendJournal(String path) {
+		try {
+			Files.writeString(journalFile, JOURNAL_DIRTY + '\t' + path + '\n', StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			LOG.warn("Failed to append to dirty path journal " + journalFile, e);
+		}
+	}
+
+	@Nullable private String getHead() {
+		try {
+			ObjectId head = git.getRepository().resolve(Constants.HEAD);
+			return head != null ? head.getName() : "";
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	@Nullable private static IgnoreNode loadIgnoreNode(Path gitignore) {
+		if (!Files.isRegularFile(gitignore))
+			return null;
+
+		IgnoreNode ignoreNode = new IgnoreNode();
+		try (InputStream in = Files.newInputStream(gitignore)) {
+			ignoreNode.parse(in);
+			return ignoreNode;
+		} catch (IOException e) {
+			LOG.warn("Failed to read " + gitignore, e);
+			return null;
+		}
+	}
+
+	/**
+	 * @param sequence Sequence of the last change included in the snapshot
+	 * @param paths    Tracked paths, or null if they are not known and the whole working tree needs to be scanned
+	 */
+	public record Snapshot(long sequence, @Nullable Set<String> paths) {}
+
+}
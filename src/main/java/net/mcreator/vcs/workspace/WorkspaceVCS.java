@@ -35,6 +35,7 @@ import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 
+import javax.annotation.Nullable;
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
@@ -48,15 +49,26 @@ public class WorkspaceVCS {
 	private static final Logger LOG = LogManager.getLogger("Workspace VCS");
 	private static final Map<File, WorkspaceVCS> workspaces = new HashMap<>();
 
+	private final Workspace workspace;
+
 	private VCSInfo info;
 
 	private Git git;
 
+	private DirtyPathTracker dirtyPathTracker;
+
 	private WorkspaceVCS(Workspace workspace, VCSInfo info) {
+		this.workspace = workspace;
 		this.info = info;
 
 		try {
 			this.git = Git.init().setDirectory(workspace.getWorkspaceFolder()).call();
+			WorkspaceVCS previous = workspaces.get(workspace.getWorkspaceFolder());
+			if (previous != null) { // workspace was reopened, only one tracker may write the journal
+				previous.dirtyPathTracker.close();
+				previous.git.close();
+			}
+			this.dirtyPathTracker = new DirtyPathTracker(workspace, git);
 			workspaces.put(workspace.getWorkspaceFolder(), this);
 		} catch (GitAPIException e) {
 			LOG.error("Failed to load repository", e);
@@ -75,6 +87,13 @@ public class WorkspaceVCS {
 		return git;
 	}
 
+	/**
+	 * @return Tracker of dirty paths of the workspace, null if the repository could not be loaded
+	 */
+	@Nullable public DirtyPathTracker getDirtyPathTracker() {
+		return dirtyPathTracker;
+	}
+
 	public CredentialsProvider getCredentialsProvider(File workspaceFolder, Window parent) {
 		return new UsernamePasswordCredentialsProvider(info.getUsername(), info.getPassword(workspaceFolder, parent));
 	}
@@ -144,7 +163,23 @@ public class WorkspaceVCS {
 
 	public static void removeVCSWorkspace(Workspace workspace) {
 		new File(workspace.getFolderManager().getWorkspaceCacheDir(), "vcsInfo").delete();
-		closeVCS(workspaces.remove(workspace.getWorkspaceFolder()).git);
+		WorkspaceVCS workspaceVCS = workspaces.remove(workspace.getWorkspaceFolder());
+		workspaceVCS.dirtyPathTracker.close();
+		closeVCS(workspaceVCS.git);
+	}
+
+	/**
+	 * Releases the repository and stops tracking dirty paths of the workspace once it is closed. VCS of the workspace
+	 * stays set up and is loaded again when the workspace is opened.
+	 */
+	public static void closeVCSWorkspace(Workspace workspace) {
+		WorkspaceVCS workspaceVCS = workspaces.get(workspace.getWorkspaceFolder());
+		// the workspace folder could already be open again, VCS loaded for the new workspace is kept in that case
+		if (workspaceVCS != null && workspaceVCS.workspace == workspace) {
+			workspaces.remove(workspace.getWorkspaceFolder());
+			workspaceVCS.dirtyPathTracker.close();
+			workspaceVCS.git.close();
+		}
 	}
 
 	private static boolean isVCSInitialized(Workspace workspace) {
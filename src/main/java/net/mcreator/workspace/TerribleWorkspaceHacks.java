@@ -18,6 +18,7 @@
 
 package net.mcreator.workspace;
 
+import com.google.gson.JsonElement;
 import net.mcreator.io.FileIO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,12 +32,21 @@ public class TerribleWorkspaceHacks {
 	}
 
 	public static void reloadFromFS(Workspace workspace) {
-		workspace.getModElementManager().invalidateCache();
-		loadStoredDataFrom(workspace, WorkspaceFileManager.gson.fromJson(
+		reloadFrom(workspace, WorkspaceFileManager.gson.fromJson(
 				FileIO.readFileToString(workspace.getFileManager().getWorkspaceFile()), Workspace.class));
+		LOG.info("Reloaded current workspace from the workspace file");
+	}
+
+	public static void reloadFromJson(Workspace workspace, JsonElement workspaceJson) {
+		reloadFrom(workspace, WorkspaceFileManager.gson.fromJson(workspaceJson, Workspace.class));
+		LOG.info("Reloaded current workspace from a stored copy");
+	}
+
+	private static void reloadFrom(Workspace workspace, Workspace other) {
+		workspace.getModElementManager().invalidateCache();
+		loadStoredDataFrom(workspace, other);
 		workspace.getModElements().forEach(e -> e.reinit(workspace));
 		workspace.reloadFolderStructure();
-		LOG.info("Reloaded current workspace from the workspace file");
 	}
 
 }